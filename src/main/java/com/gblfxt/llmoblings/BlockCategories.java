@@ -0,0 +1,193 @@
+package com.gblfxt.llmoblings;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.world.level.block.BedBlock;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.common.Tags;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
+
+/**
+ * Precomputed block categories, so hot loops can classify a block with one map lookup
+ * instead of building registry or display-name strings and scanning them for keywords.
+ *
+ * The table is built once from block tags where a suitable tag exists, with registry-name
+ * heuristics as a fallback for modded blocks that don't tag themselves. It is rebuilt whenever
+ * the server (re)loads tags, e.g. on /reload with a changed data pack.
+ */
+@EventBusSubscriber(modid = LLMoblings.MOD_ID)
+public class BlockCategories {
+
+    // Base blocks companions must not dig into (storage, workstations, lighting, doors...)
+    public static final int IMPORTANT = 1;
+    public static final int CRAFTING = 1 << 1;
+    public static final int ELEVATOR = 1 << 2;
+    public static final int PORTAL = 1 << 3;
+    public static final int BED = 1 << 4;
+    // Small plants cleared off a building site
+    public static final int CLEARABLE = 1 << 5;
+    // Plants a blueprint placement may replace
+    public static final int BUILD_REPLACEABLE = 1 << 6;
+    // Fences, walls and gates
+    public static final int ENCLOSURE = 1 << 7;
+    // Hay, troughs, feeders and other animal-farm blocks
+    public static final int FARM = 1 << 8;
+    // Player-made flooring
+    public static final int PLAYER_FLOOR = 1 << 9;
+    // Doors, chests and workstations worth exploring towards
+    public static final int INTERESTING = 1 << 10;
+    public static final int ORE = 1 << 11;
+    public static final int LOG = 1 << 12;
+    public static final int LEAVES = 1 << 13;
+
+    private static volatile Reference2IntOpenHashMap<Block> table;
+
+    // ========== LOOKUPS ==========
+
+    /**
+     * All category bits for a block.
+     */
+    public static int get(Block block) {
+        Reference2IntOpenHashMap<Block> current = table;
+        if (current == null) {
+            current = rebuild();
+        }
+        return current.getInt(block);
+    }
+
+    /**
+     * True if the block is in any of the given categories.
+     */
+    public static boolean has(Block block, int categories) {
+        return (get(block) & categories) != 0;
+    }
+
+    public static boolean has(BlockState state, int categories) {
+        return has(state.getBlock(), categories);
+    }
+
+    // ========== BUILDING ==========
+
+    /**
+     * Classify every registered block. Safe to call from any thread (scan workers build the
+     * table lazily if they get there first); readers keep using the previous table until the
+     * new one is published. Caches derived from the categories are dropped separately, on the
+     * server thread, when tags are reloaded.
+     */
+    public static synchronized Reference2IntOpenHashMap<Block> rebuild() {
+        Reference2IntOpenHashMap<Block> built = new Reference2IntOpenHashMap<>(BuiltInRegistries.BLOCK.size());
+        built.defaultReturnValue(0);
+
+        for (Block block : BuiltInRegistries.BLOCK) {
+            int categories = classify(block);
+            if (categories != 0) {
+                built.put(block, categories);
+            }
+        }
+
+        table = built;
+        LLMoblings.LOGGER.debug("Classified {} of {} blocks", built.size(), BuiltInRegistries.BLOCK.size());
+        return built;
+    }
+
+    private static int classify(Block block) {
+        BlockState state = block.defaultBlockState();
+        String name = BuiltInRegistries.BLOCK.getKey(block).getPath();
+        int categories = 0;
+
+        boolean chest = state.is(Tags.Blocks.CHESTS) || name.contains("chest");
+        boolean barrel = state.is(Tags.Blocks.BARRELS) || name.contains("barrel");
+        boolean furnace = state.is(Tags.Blocks.PLAYER_WORKSTATIONS_FURNACES) || name.contains("furnace");
+        boolean craftingTable = state.is(Tags.Blocks.PLAYER_WORKSTATIONS_CRAFTING_TABLES)
+                || name.contains("crafting") || name.contains("workbench");
+        boolean anvil = state.is(BlockTags.ANVIL) || name.contains("anvil");
+        boolean enchant = name.contains("enchant");
+        boolean bed = block instanceof BedBlock || state.is(BlockTags.BEDS);
+        boolean door = state.is(BlockTags.DOORS) || name.contains("door");
+
+        if (block == Blocks.NETHER_PORTAL || block == Blocks.END_PORTAL) {
+            categories |= PORTAL;
+        }
+        if (name.contains("elevator")) {
+            categories |= ELEVATOR;
+        }
+        if (bed) {
+            categories |= BED;
+        }
+        if (craftingTable || furnace || anvil || enchant || name.contains("smoker") ||
+            name.contains("smithing") || name.contains("stonecutter") || name.contains("loom") ||
+            name.contains("brewing")) {
+            categories |= CRAFTING;
+        }
+        if (chest || barrel || furnace || craftingTable || anvil || enchant || bed || door ||
+            state.is(BlockTags.CAMPFIRES) ||
+            name.contains("torch") ||
+            name.contains("lantern") ||
+            name.contains("campfire") ||
+            name.contains("table") ||
+            name.contains("terminal") ||  // AE2
+            name.contains("interface") || // AE2
+            name.contains("drive")) {     // AE2
+            categories |= IMPORTANT;
+        }
+        if (door || chest || furnace || craftingTable || enchant || anvil) {
+            categories |= INTERESTING;
+        }
+
+        boolean flower = state.is(BlockTags.FLOWERS) || name.contains("flower");
+        boolean sapling = state.is(BlockTags.SAPLINGS) || name.contains("sapling");
+        boolean leaves = state.is(BlockTags.LEAVES) || name.contains("leaves");
+        boolean smallPlant = flower || sapling || name.contains("grass") || name.contains("fern") ||
+                name.contains("vine") || name.contains("mushroom");
+        if (smallPlant) {
+            categories |= BUILD_REPLACEABLE;
+        }
+        if (smallPlant || leaves || name.contains("dead_bush") || name.contains("kelp")) {
+            categories |= CLEARABLE;
+        }
+
+        if (state.is(BlockTags.FENCES) || state.is(BlockTags.WALLS) || state.is(BlockTags.FENCE_GATES) ||
+            name.endsWith("fence") || name.endsWith("_wall") || name.endsWith("gate")) {
+            categories |= ENCLOSURE;
+        }
+        if (block == Blocks.HAY_BLOCK || name.contains("hay") || name.contains("trough") ||
+            name.contains("feeder") || name.contains("barn") || name.contains("stable") ||
+            name.contains("coop") || name.endsWith("_pen")) {
+            categories |= FARM;
+        }
+        if (state.is(BlockTags.PLANKS) || state.is(BlockTags.STONE_BRICKS) || state.is(Tags.Blocks.COBBLESTONES) ||
+            name.contains("plank") || name.contains("cobblestone") || name.contains("stone_brick") ||
+            name.contains("hay")) {
+            categories |= PLAYER_FLOOR;
+        }
+
+        if (state.is(Tags.Blocks.ORES) || name.endsWith("_ore") || name.contains("_ore_")) {
+            categories |= ORE;
+        }
+        if (state.is(BlockTags.LOGS) || name.contains("_log")) {
+            categories |= LOG;
+        }
+        if (leaves) {
+            categories |= LEAVES;
+        }
+
+        return categories;
+    }
+
+    // ========== EVENTS ==========
+
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        // Client tag syncs don't matter - companion AI only runs on the server
+        if (event.getUpdateCause() == TagsUpdatedEvent.UpdateCause.SERVER_DATA_LOAD) {
+            rebuild();
+            // Fired on the server thread, which owns the index
+            PointOfInterestIndex.invalidate();
+        }
+    }
+}
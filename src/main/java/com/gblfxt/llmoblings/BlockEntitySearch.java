@@ -0,0 +1,79 @@
+package com.gblfxt.llmoblings;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Searches for block entities by walking each chunk's block-entity map instead of calling
+ * level.getBlockEntity() for every position in a cube. Only chunks overlapping the search
+ * box are visited and only chunks that are already loaded - nothing is loaded or generated.
+ */
+public class BlockEntitySearch {
+
+    /**
+     * Find positions of block entities matching the filter within +/-radius horizontally
+     * and +/-yRange vertically of center, nearest first.
+     */
+    public static List<BlockPos> find(Level level, BlockPos center, int radius, int yRange,
+                                      Predicate<BlockEntity> filter) {
+        List<BlockPos> results = new ArrayList<>();
+
+        for (int cx = (center.getX() - radius) >> 4; cx <= (center.getX() + radius) >> 4; cx++) {
+            for (int cz = (center.getZ() - radius) >> 4; cz <= (center.getZ() + radius) >> 4; cz++) {
+                LevelChunk chunk = level.getChunkSource().getChunkNow(cx, cz);
+                if (chunk != null) {
+                    findInChunk(chunk, center, radius, yRange, filter, results);
+                }
+            }
+        }
+
+        results.sort(Comparator.comparingDouble(pos -> pos.distSqr(center)));
+        return results;
+    }
+
+    /**
+     * Add the positions of matching block entities in one chunk that fall inside the search
+     * box to results, unsorted. Lets incremental scans work through an area chunk by chunk.
+     */
+    public static void findInChunk(LevelChunk chunk, BlockPos center, int radius, int yRange,
+                                   Predicate<BlockEntity> filter, List<BlockPos> results) {
+        int minX = center.getX() - radius, maxX = center.getX() + radius;
+        int minY = center.getY() - yRange, maxY = center.getY() + yRange;
+        int minZ = center.getZ() - radius, maxZ = center.getZ() + radius;
+
+        for (BlockEntity be : chunk.getBlockEntities().values()) {
+            BlockPos pos = be.getBlockPos();
+            if (pos.getX() < minX || pos.getX() > maxX || pos.getY() < minY || pos.getY() > maxY
+                    || pos.getZ() < minZ || pos.getZ() > maxZ) {
+                continue;
+            }
+            if (!be.isRemoved() && filter.test(be)) {
+                results.add(pos);
+            }
+        }
+    }
+
+    /**
+     * Find positions of block entities of the given class, nearest first.
+     */
+    public static List<BlockPos> find(Level level, BlockPos center, int radius, int yRange,
+                                      Class<?> type) {
+        return find(level, center, radius, yRange, type::isInstance);
+    }
+
+    /**
+     * Nearest matching block entity position, or null.
+     */
+    public static BlockPos findNearest(Level level, BlockPos center, int radius, int yRange,
+                                       Predicate<BlockEntity> filter) {
+        List<BlockPos> results = find(level, center, radius, yRange, filter);
+        return results.isEmpty() ? null : results.get(0);
+    }
+}
@@ -24,6 +24,10 @@ public class ChatHandler {
         }
 
         ServerPlayer player = event.getPlayer();
+        boolean allowOtherPlayers = Config.ALLOW_OTHER_PLAYER_INTERACTION.get();
+        List<CompanionEntity> nearby = allowOtherPlayers
+                ? CompanionRegistry.getInBox(player.level(), player.getBoundingBox().inflate(64))
+                : CompanionRegistry.getOwnedInBox(player.level(), player.getUUID(), null, player.getBoundingBox().inflate(64));
         String afterPrefix = message.substring(prefix.length()).trim();
 
         LLMoblings.LOGGER.debug("Chat message with prefix from {}: {}", player.getName().getString(), afterPrefix);
@@ -40,18 +44,9 @@ public class ChatHandler {
             String restOfMessage = afterPrefix.substring(spaceIndex + 1).trim();
 
             // Check if there's a companion with this name nearby (owned by anyone if multi-player interaction enabled)
-            boolean allowOtherPlayers = Config.ALLOW_OTHER_PLAYER_INTERACTION.get();
-            List<CompanionEntity> namedCompanions = player.level().getEntitiesOfClass(
-                    CompanionEntity.class,
-                    player.getBoundingBox().inflate(64),
-                    c -> {
-                        boolean nameMatch = c.getCompanionName().equalsIgnoreCase(potentialName);
-                        boolean canInteract = c.isOwner(player) || allowOtherPlayers;
-                        return nameMatch && canInteract;
-                    }
-            );
+            boolean named = nearby.stream().anyMatch(c -> c.getCompanionName().equalsIgnoreCase(potentialName));
 
-            if (!namedCompanions.isEmpty()) {
+            if (named) {
                 targetName = potentialName;
                 actualMessage = restOfMessage;
             } else {
@@ -64,16 +59,9 @@ public class ChatHandler {
         }
 
         // Find target companions
-        boolean allowOtherPlayers = Config.ALLOW_OTHER_PLAYER_INTERACTION.get();
-        List<CompanionEntity> companions = player.level().getEntitiesOfClass(
-                CompanionEntity.class,
-                player.getBoundingBox().inflate(64),
-                c -> {
-                    boolean nameMatch = targetName.isEmpty() || c.getCompanionName().equalsIgnoreCase(targetName);
-                    boolean canInteract = c.isOwner(player) || allowOtherPlayers;
-                    return nameMatch && canInteract;
-                }
-        );
+        List<CompanionEntity> companions = nearby.stream()
+                .filter(c -> targetName.isEmpty() || c.getCompanionName().equalsIgnoreCase(targetName))
+                .toList();
 
         if (companions.isEmpty()) {
             LLMoblings.LOGGER.debug("No companions found for player {} with target name '{}'",
@@ -0,0 +1,209 @@
+package com.gblfxt.llmoblings;
+
+import com.gblfxt.llmoblings.entity.CompanionEntity;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.entity.EntityJoinLevelEvent;
+import net.neoforged.neoforge.event.entity.EntityLeaveLevelEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Every companion loaded on the server, indexed by owner, by (owner, name) and by chunk, so
+ * chat routing and commands can find companions without searching the world for them.
+ *
+ * Also tells companions when an item drops within their pickup range.
+ *
+ * Kept current from entity join/leave events (a dimension change is a leave from the old level
+ * and a join in the new one), plus {@link #update} when a companion's name or owner changes and
+ * {@link #updatePosition} from its tick for the chunk index.
+ *
+ * Server thread only.
+ */
+@EventBusSubscriber(modid = LLMoblings.MOD_ID)
+public class CompanionRegistry {
+
+    private record NameKey(UUID owner, String name) {}
+
+    // Where each companion is currently filed, so it can be unfiled without searching
+    private record Entry(ResourceKey<Level> dimension, long chunk, @Nullable UUID owner, String name) {}
+
+    private static final Map<CompanionEntity, Entry> entries = new IdentityHashMap<>();
+    private static final Map<UUID, List<CompanionEntity>> byOwner = new HashMap<>();
+    private static final Map<NameKey, List<CompanionEntity>> byName = new HashMap<>();
+    private static final Map<ResourceKey<Level>, Long2ObjectOpenHashMap<List<CompanionEntity>>> byChunk = new HashMap<>();
+
+    // ========== QUERIES ==========
+
+    /**
+     * All loaded companions of a player, in any dimension.
+     */
+    public static List<CompanionEntity> getOwnedBy(UUID owner) {
+        List<CompanionEntity> owned = byOwner.get(owner);
+        return owned == null ? List.of() : List.copyOf(owned);
+    }
+
+    /**
+     * A player's loaded companions with this name (ignoring case), in any dimension.
+     */
+    public static List<CompanionEntity> getByName(UUID owner, String name) {
+        List<CompanionEntity> named = byName.get(new NameKey(owner, name.toLowerCase(Locale.ROOT)));
+        return named == null ? List.of() : List.copyOf(named);
+    }
+
+    /**
+     * A player's companions in this level touching the box, optionally only those with
+     * the given name. Looked up by owner (or owner and name), not by searching the box.
+     */
+    public static List<CompanionEntity> getOwnedInBox(Level level, UUID owner, @Nullable String name, AABB box) {
+        List<CompanionEntity> candidates = name == null || name.isEmpty() ? getOwnedBy(owner) : getByName(owner, name);
+        List<CompanionEntity> results = new ArrayList<>();
+        for (CompanionEntity companion : candidates) {
+            if (companion.level() == level && companion.getBoundingBox().intersects(box)) {
+                results.add(companion);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Companions in a level whose bounding box touches the box, the same set
+     * getEntitiesOfClass would return, found by visiting only the chunks the box covers.
+     */
+    public static List<CompanionEntity> getInBox(Level level, AABB box) {
+        Long2ObjectOpenHashMap<List<CompanionEntity>> chunks = byChunk.get(level.dimension());
+        if (chunks == null || level.isClientSide()) {
+            return List.of();
+        }
+
+        // Companions are filed by the chunk of their position; pad by a block for their width
+        List<CompanionEntity> results = new ArrayList<>();
+        int minCx = ((int) Math.floor(box.minX) - 1) >> 4, maxCx = ((int) Math.floor(box.maxX) + 1) >> 4;
+        int minCz = ((int) Math.floor(box.minZ) - 1) >> 4, maxCz = ((int) Math.floor(box.maxZ) + 1) >> 4;
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cz = minCz; cz <= maxCz; cz++) {
+                List<CompanionEntity> inChunk = chunks.get(ChunkPos.asLong(cx, cz));
+                if (inChunk == null) continue;
+                for (CompanionEntity companion : inChunk) {
+                    if (companion.getBoundingBox().intersects(box)) {
+                        results.add(companion);
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    public static int size() {
+        return entries.size();
+    }
+
+    // ========== MAINTENANCE ==========
+
+    private static void add(CompanionEntity companion) {
+        if (entries.containsKey(companion)) {
+            return;
+        }
+        Entry entry = new Entry(companion.level().dimension(), companion.chunkPosition().toLong(),
+                companion.getOwnerUUID(), companion.getCompanionName().toLowerCase(Locale.ROOT));
+        entries.put(companion, entry);
+
+        if (entry.owner() != null) {
+            byOwner.computeIfAbsent(entry.owner(), k -> new ArrayList<>()).add(companion);
+            byName.computeIfAbsent(new NameKey(entry.owner(), entry.name()), k -> new ArrayList<>()).add(companion);
+        }
+        byChunk.computeIfAbsent(entry.dimension(), k -> new Long2ObjectOpenHashMap<>())
+                .computeIfAbsent(entry.chunk(), k -> new ArrayList<>()).add(companion);
+    }
+
+    private static void remove(CompanionEntity companion) {
+        Entry entry = entries.remove(companion);
+        if (entry == null) {
+            return;
+        }
+
+        if (entry.owner() != null) {
+            removeFrom(byOwner, entry.owner(), companion);
+            removeFrom(byName, new NameKey(entry.owner(), entry.name()), companion);
+        }
+        Long2ObjectOpenHashMap<List<CompanionEntity>> chunks = byChunk.get(entry.dimension());
+        if (chunks != null) {
+            List<CompanionEntity> inChunk = chunks.get(entry.chunk());
+            if (inChunk != null && inChunk.remove(companion) && inChunk.isEmpty()) {
+                chunks.remove(entry.chunk());
+            }
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, List<CompanionEntity>> index, K key, CompanionEntity companion) {
+        List<CompanionEntity> list = index.get(key);
+        if (list != null && list.remove(companion) && list.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * Re-file a companion after its name or owner changed. No-op for companions not in a level yet.
+     */
+    public static void update(CompanionEntity companion) {
+        if (entries.containsKey(companion)) {
+            remove(companion);
+            add(companion);
+        }
+    }
+
+    /**
+     * Re-file a companion if it moved into another chunk. Called every tick, so the common
+     * case is a single map lookup.
+     */
+    public static void updatePosition(CompanionEntity companion) {
+        Entry entry = entries.get(companion);
+        if (entry != null && entry.chunk() != companion.chunkPosition().toLong()) {
+            remove(companion);
+            add(companion);
+        }
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onEntityJoin(EntityJoinLevelEvent event) {
+        if (event.isCanceled() || event.getLevel().isClientSide()) {
+            return;
+        }
+        if (event.getEntity() instanceof CompanionEntity companion) {
+            add(companion);
+        } else if (event.getEntity() instanceof ItemEntity item && !entries.isEmpty()) {
+            // Wake up companions in pickup range instead of having them poll for drops
+            AABB range = item.getBoundingBox().inflate(Config.ITEM_PICKUP_RADIUS.get());
+            for (CompanionEntity companion : getInBox(event.getLevel(), range)) {
+                companion.onItemNearby();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onEntityLeave(EntityLeaveLevelEvent event) {
+        if (!event.getLevel().isClientSide() && event.getEntity() instanceof CompanionEntity companion) {
+            remove(companion);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof Level level && !level.isClientSide()) {
+            List<CompanionEntity> unloaded = entries.keySet().stream()
+                    .filter(companion -> entries.get(companion).dimension() == level.dimension())
+                    .toList();
+            unloaded.forEach(CompanionRegistry::remove);
+            byChunk.remove(level.dimension());
+        }
+    }
+}
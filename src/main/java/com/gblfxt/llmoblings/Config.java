@@ -2,6 +2,8 @@ package com.gblfxt.llmoblings;
 
 import net.neoforged.neoforge.common.ModConfigSpec;
 
+import java.util.List;
+
 public class Config {
     public static final ModConfigSpec.Builder BUILDER = new ModConfigSpec.Builder();
     public static final ModConfigSpec SPEC;
@@ -11,6 +13,11 @@ public class Config {
     public static final ModConfigSpec.ConfigValue<Integer> OLLAMA_PORT;
     public static final ModConfigSpec.ConfigValue<String> OLLAMA_MODEL;
     public static final ModConfigSpec.ConfigValue<Integer> OLLAMA_TIMEOUT;
+    public static final ModConfigSpec.ConfigValue<String> OLLAMA_EMBED_MODEL;
+    public static final ModConfigSpec.ConfigValue<Integer> PLAYER_TOKENS_PER_MINUTE;
+    public static final ModConfigSpec.ConfigValue<Integer> SERVER_TOKENS_PER_MINUTE;
+    public static final ModConfigSpec.ConfigValue<Integer> RESPONSE_CACHE_SIZE;
+    public static final ModConfigSpec.ConfigValue<Integer> RESPONSE_CACHE_TTL_SECONDS;
 
     // Companion settings
     public static final ModConfigSpec.ConfigValue<Integer> MAX_COMPANIONS_PER_PLAYER;
@@ -21,11 +28,26 @@ public class Config {
     public static final ModConfigSpec.ConfigValue<Boolean> COMPANIONS_LOAD_CHUNKS;
     public static final ModConfigSpec.ConfigValue<Boolean> ACTION_LOOP_ENABLED;
     public static final ModConfigSpec.ConfigValue<Integer> ACTION_LOOP_MAX_ITERATIONS;
+    public static final ModConfigSpec.ConfigValue<Boolean> MEMORY_ENABLED;
+    public static final ModConfigSpec.ConfigValue<Integer> MEMORY_MAX_ENTRIES;
+    public static final ModConfigSpec.ConfigValue<Integer> MEMORY_RECALL_COUNT;
+    public static final ModConfigSpec.ConfigValue<Integer> SCAN_BUDGET_MICROS;
+    public static final ModConfigSpec.ConfigValue<Integer> WORK_BUDGET_PER_TICK;
+    public static final ModConfigSpec.ConfigValue<Boolean> AI_LOD_ENABLED;
+    public static final ModConfigSpec.ConfigValue<Integer> AI_FULL_DETAIL_RANGE;
+    public static final ModConfigSpec.ConfigValue<Integer> AI_SIMULATION_RANGE;
+    public static final ModConfigSpec.ConfigValue<Integer> AI_REDUCED_SLOWDOWN;
+    public static final ModConfigSpec.ConfigValue<Integer> AI_SIMULATION_INTERVAL;
+    public static final ModConfigSpec.ConfigValue<List<? extends String>> HOSTILE_ENTITIES;
+    public static final ModConfigSpec.ConfigValue<List<? extends String>> HUNTABLE_ENTITIES;
+    public static final ModConfigSpec.ConfigValue<List<? extends String>> NEVER_ATTACK_ENTITIES;
 
     // Chat settings
     public static final ModConfigSpec.ConfigValue<String> CHAT_PREFIX;
     public static final ModConfigSpec.ConfigValue<Boolean> BROADCAST_COMPANION_CHAT;
     public static final ModConfigSpec.ConfigValue<Boolean> ALLOW_OTHER_PLAYER_INTERACTION;
+    public static final ModConfigSpec.ConfigValue<Boolean> GENERATED_DIALOGUE_ENABLED;
+    public static final ModConfigSpec.ConfigValue<Integer> GENERATED_DIALOGUE_POOL_SIZE;
 
     static {
         BUILDER.comment("Ollama LLM Configuration").push("ollama");
@@ -46,6 +68,26 @@ public class Config {
                 .comment("Request timeout in seconds")
                 .defineInRange("timeout", 30, 5, 300);
 
+        OLLAMA_EMBED_MODEL = BUILDER
+                .comment("Ollama embedding model used for companion long-term memory (e.g., nomic-embed-text, all-minilm)")
+                .define("embedModel", "nomic-embed-text");
+
+        PLAYER_TOKENS_PER_MINUTE = BUILDER
+                .comment("LLM token budget per player per minute (prompt + response). Over-budget messages fall back to simple keyword commands. 0 = unlimited")
+                .defineInRange("playerTokensPerMinute", 30000, 0, 10000000);
+
+        SERVER_TOKENS_PER_MINUTE = BUILDER
+                .comment("LLM token budget for the whole server per minute, shared by all players and background work. 0 = unlimited")
+                .defineInRange("serverTokensPerMinute", 120000, 0, 100000000);
+
+        RESPONSE_CACHE_SIZE = BUILDER
+                .comment("Number of LLM responses cached for repeated messages (0 = disable caching)")
+                .defineInRange("responseCacheSize", 256, 0, 10000);
+
+        RESPONSE_CACHE_TTL_SECONDS = BUILDER
+                .comment("How long a cached LLM response stays valid, in seconds")
+                .defineInRange("responseCacheTtl", 300, 1, 86400);
+
         BUILDER.pop();
 
         BUILDER.comment("Companion Behavior").push("companion");
@@ -82,6 +124,58 @@ public class Config {
                 .comment("Maximum iterations per action loop (1 = single-shot like before)")
                 .defineInRange("actionLoopMaxIterations", 3, 1, 10);
 
+        MEMORY_ENABLED = BUILDER
+                .comment("Enable long-term episodic memory: companions remember past tasks and conversations across sessions")
+                .define("memoryEnabled", true);
+
+        MEMORY_MAX_ENTRIES = BUILDER
+                .comment("Maximum memories kept per companion (oldest are forgotten first)")
+                .defineInRange("memoryMaxEntries", 200, 10, 2000);
+
+        MEMORY_RECALL_COUNT = BUILDER
+                .comment("Number of relevant memories injected into each prompt (0 = store only, never recall)")
+                .defineInRange("memoryRecallCount", 3, 0, 10);
+
+        SCAN_BUDGET_MICROS = BUILDER
+                .comment("Time budget in microseconds per companion tick for area scans (storage, protected zones, ME access); larger scans continue over several ticks")
+                .defineInRange("scanBudgetMicros", 500, 50, 50000);
+
+        WORK_BUDGET_PER_TICK = BUILDER
+                .comment("Periodic companion jobs (item sweeps, gear checks, chunk loading updates, threat scans) run per server tick across all companions, weighted by cost; the rest wait for later ticks")
+                .defineInRange("workBudgetPerTick", 48, 1, 10000);
+
+        AI_LOD_ENABLED = BUILDER
+                .comment("Run companion AI at reduced rates while no player is nearby (chatter, item sweeps, scans, re-pathing), and step long jobs coarsely when nobody is anywhere near")
+                .define("aiLevelOfDetail", true);
+
+        AI_FULL_DETAIL_RANGE = BUILDER
+                .comment("Companions with a player within this many blocks run their AI at full rate")
+                .defineInRange("aiFullDetailRange", 64, 16, 512);
+
+        AI_SIMULATION_RANGE = BUILDER
+                .comment("Companions with no player within this many blocks advance long jobs (autonomous, mining, building) only every few ticks")
+                .defineInRange("aiSimulationRange", 128, 16, 1024);
+
+        AI_REDUCED_SLOWDOWN = BUILDER
+                .comment("How many times less often chatter, item sweeps, scans and re-pathing run while no player is nearby")
+                .defineInRange("aiReducedSlowdown", 4, 1, 20);
+
+        AI_SIMULATION_INTERVAL = BUILDER
+                .comment("Ticks between steps of a long job while no player is within the simulation range")
+                .defineInRange("aiSimulationInterval", 4, 1, 40);
+
+        HOSTILE_ENTITIES = BUILDER
+                .comment("Entity ids companions always treat as hostile, e.g. \"somemod:grumpy_golem\" or \"somemod:*\" for a whole mod")
+                .defineListAllowEmpty("hostileEntities", List.of(), () -> "", entry -> entry instanceof String);
+
+        HUNTABLE_ENTITIES = BUILDER
+                .comment("Entity ids companions may hunt for food, on top of the built-in list")
+                .defineListAllowEmpty("huntableEntities", List.of(), () -> "", entry -> entry instanceof String);
+
+        NEVER_ATTACK_ENTITIES = BUILDER
+                .comment("Entity ids companions never attack or hunt, even when told to; wins over the other lists")
+                .defineListAllowEmpty("neverAttackEntities", List.of(), () -> "", entry -> entry instanceof String);
+
         BUILDER.pop();
 
         BUILDER.comment("Chat Settings").push("chat");
@@ -98,6 +192,14 @@ public class Config {
                 .comment("Whether other players (not the owner) can talk to and command companions")
                 .define("allowOtherPlayerInteraction", true);
 
+        GENERATED_DIALOGUE_ENABLED = BUILDER
+                .comment("Generate fresh personality chatter with the LLM in the background while it's otherwise idle")
+                .define("generatedDialogue", true);
+
+        GENERATED_DIALOGUE_POOL_SIZE = BUILDER
+                .comment("Maximum generated lines cached per companion per context (oldest are evicted first)")
+                .defineInRange("generatedDialoguePoolSize", 12, 1, 64);
+
         BUILDER.pop();
 
         SPEC = BUILDER.build();
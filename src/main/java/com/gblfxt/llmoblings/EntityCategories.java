@@ -0,0 +1,244 @@
+package com.gblfxt.llmoblings;
+
+import com.gblfxt.llmoblings.compat.CobblemonIntegration;
+import com.gblfxt.llmoblings.entity.CompanionEntity;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.EntityTypeTags;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.animal.*;
+import net.minecraft.world.entity.animal.horse.AbstractHorse;
+import net.minecraft.world.entity.monster.Monster;
+import net.minecraft.world.entity.player.Player;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.common.Tags;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Precomputed entity type categories for targeting and hunting, so entity filters are one map
+ * lookup plus the checks that really differ per entity (tamed, named, leashed) instead of
+ * building registry-id, class-name and description strings for every candidate.
+ *
+ * A type is classified the first time an entity of it is looked up (class checks need an
+ * instance; every entity of a type shares its class). Categories come from entity type tags
+ * where one fits, class checks, id heuristics for modded mobs, and finally the config lists,
+ * which win over everything else. The table is cleared when the server (re)loads tags, which
+ * also picks up edited config lists on /reload.
+ *
+ * Server thread only.
+ */
+@EventBusSubscriber(modid = LLMoblings.MOD_ID)
+public class EntityCategories {
+
+    // Attacked on sight when defending
+    public static final int HOSTILE = 1;
+    public static final int BOSS = 1 << 1;
+    // Worth hunting for food (before the per-entity tame/named/leashed/penned checks)
+    public static final int FOOD = 1 << 2;
+    // Never targeted, even when asked for by type
+    public static final int NEVER_ATTACK = 1 << 3;
+    public static final int POKEMON = 1 << 4;
+
+    private static final Reference2IntOpenHashMap<EntityType<?>> table = new Reference2IntOpenHashMap<>();
+    private static final Reference2IntOpenHashMap<EntityType<?>> huntValues = new Reference2IntOpenHashMap<>();
+
+    // ========== LOOKUPS ==========
+
+    /**
+     * All category bits for an entity's type.
+     */
+    public static int get(Entity entity) {
+        EntityType<?> type = entity.getType();
+        if (!table.containsKey(type)) {
+            table.put(type, classify(entity));
+            huntValues.put(type, huntValue(entity));
+        }
+        return table.getInt(type);
+    }
+
+    /**
+     * True if the entity's type is in any of the given categories.
+     */
+    public static boolean has(Entity entity, int categories) {
+        return (get(entity) & categories) != 0;
+    }
+
+    /**
+     * How much food hunting this type is worth, higher is better.
+     */
+    public static int getHuntValue(Entity entity) {
+        get(entity);
+        return huntValues.getInt(entity.getType());
+    }
+
+    // ========== CLASSIFYING ==========
+
+    private static int classify(Entity entity) {
+        EntityType<?> type = entity.getType();
+        ResourceLocation id = BuiltInRegistries.ENTITY_TYPE.getKey(type);
+        String name = id.toString();
+        String className = entity.getClass().getName().toLowerCase(Locale.ROOT);
+        String description = type.getDescriptionId().toLowerCase(Locale.ROOT);
+        int categories = 0;
+
+        boolean pokemon = CobblemonIntegration.isPokemon(entity)
+                || className.contains("cobblemon") || className.contains("pokemon") || name.contains("cobblemon");
+        if (pokemon) {
+            categories |= POKEMON;
+        }
+
+        if (type.is(Tags.EntityTypes.BOSSES) || description.contains("boss") || description.contains("titan")) {
+            categories |= BOSS | HOSTILE;
+        }
+        if (entity instanceof Monster || type.is(EntityTypeTags.RAIDERS) ||
+            description.contains("hostile") || description.contains("monster")) {
+            categories |= HOSTILE;
+        }
+
+        if (entity instanceof Player || entity instanceof CompanionEntity) {
+            categories |= NEVER_ATTACK;
+        }
+
+        if (!pokemon && (categories & NEVER_ATTACK) == 0 && !isProtectedFromHunting(entity, name)
+                && isHuntableForFood(entity, name)) {
+            categories |= FOOD;
+        }
+
+        // Config lists override the defaults
+        if (listed(Config.HOSTILE_ENTITIES.get(), id)) {
+            categories |= HOSTILE;
+        }
+        if (listed(Config.HUNTABLE_ENTITIES.get(), id)) {
+            categories |= FOOD;
+        }
+        if (listed(Config.NEVER_ATTACK_ENTITIES.get(), id)) {
+            categories = (categories | NEVER_ATTACK) & ~(HOSTILE | FOOD);
+        }
+        return categories;
+    }
+
+    /**
+     * Exact ids, or "modid:*" for everything from a mod.
+     */
+    private static boolean listed(List<? extends String> entries, ResourceLocation id) {
+        for (String entry : entries) {
+            String trimmed = entry.trim().toLowerCase(Locale.ROOT);
+            if (trimmed.equals(id.toString()) || trimmed.equals(id.getNamespace() + ":*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Villagers, pets, mounts, golems and other mobs nobody wants hunted.
+     */
+    private static boolean isProtectedFromHunting(Entity entity, String name) {
+        if (name.contains("villager") || name.contains("wandering_trader")) return true;
+
+        // Parrots are always pets, foxes are cute
+        if (entity instanceof Parrot || entity instanceof Fox) return true;
+
+        // Horses/mounts - don't hunt mounts
+        if (entity instanceof AbstractHorse) return true;
+        if (name.contains("horse") || name.contains("donkey") ||
+            name.contains("mule") || name.contains("llama")) return true;
+
+        // Alex's Mobs pets/mounts
+        if (name.contains("elephant") || name.contains("gorilla") ||
+            name.contains("capuchin") || name.contains("crow") ||
+            name.contains("roadrunner")) return true;
+
+        // Bees - important for farms
+        if (entity instanceof Bee) return true;
+
+        // Iron golems, snow golems, axolotls, dolphins, allays
+        return name.contains("golem") || name.contains("axolotl") || name.contains("dolphin") || name.contains("allay");
+    }
+
+    private static boolean isHuntableForFood(Entity entity, String name) {
+        // === VANILLA FOOD ANIMALS ===
+        if (entity instanceof Cow || entity instanceof Pig || entity instanceof Sheep ||
+            entity instanceof Chicken || entity instanceof Rabbit) return true;
+
+        // Fish, squid, turtles, mooshrooms, goats
+        if (name.contains("cod") || name.contains("salmon") ||
+            name.contains("tropical_fish") || name.contains("pufferfish")) return true;
+        if (name.contains("squid") || name.contains("turtle") ||
+            name.contains("mooshroom") || name.contains("goat")) return true;
+
+        // === MODDED ANIMALS - Alex's Mobs ===
+        if (name.contains("bison") || name.contains("moose") || name.contains("gazelle") ||
+            name.contains("kangaroo") || name.contains("capybara") || name.contains("mungus") ||
+            name.contains("catfish") || name.contains("flying_fish") || name.contains("giant_squid") ||
+            name.contains("hammerhead_shark") || name.contains("lobster") || name.contains("orca")) return true;
+
+        // Alex's Caves huntable
+        if (name.contains("tremorsaurus") || name.contains("grottoceratops") ||
+            name.contains("vallumraptor")) return true;
+
+        // === FARMER'S DELIGHT ===
+        if (name.contains("farmersdelight")) return true;
+
+        // Ice and Fire dragons are too dangerous
+        if (name.contains("iceandfire") &&
+            (name.contains("hippogryph_egg") || name.contains("amphithere"))) {
+            return false;
+        }
+
+        // Generic check - if it's in the Animal class and not explicitly excluded
+        if (entity instanceof Animal) {
+            return !(name.contains("familiar") || name.contains("pet") ||
+                     name.contains("tamed") || name.contains("companion"));
+        }
+        return false;
+    }
+
+    private static int huntValue(Entity entity) {
+        String name = BuiltInRegistries.ENTITY_TYPE.getKey(entity.getType()).toString();
+
+        // High value - lots of food
+        if (entity instanceof Cow) return 100;
+        if (name.contains("mooshroom")) return 100;
+        if (name.contains("bison") || name.contains("moose")) return 100;
+
+        // Medium-high value
+        if (entity instanceof Pig) return 80;
+        if (entity instanceof Sheep) return 70;
+        if (name.contains("gazelle") || name.contains("kangaroo")) return 75;
+
+        // Medium value
+        if (entity instanceof Chicken) return 50;
+        if (entity instanceof Rabbit) return 40;
+        if (name.contains("capybara")) return 60;
+
+        // Fish - easy but low value
+        if (name.contains("cod") || name.contains("salmon")) return 30;
+        if (name.contains("tropical_fish")) return 20;
+
+        // Low value or risky
+        if (name.contains("goat")) return 25;  // Can ram you
+        if (name.contains("pufferfish")) return 10;  // Poisonous
+
+        // Default for other animals
+        if (entity instanceof Animal) return 35;
+
+        return 20;
+    }
+
+    // ========== EVENTS ==========
+
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        if (event.getUpdateCause() == TagsUpdatedEvent.UpdateCause.SERVER_DATA_LOAD) {
+            table.clear();
+            huntValues.clear();
+        }
+    }
+}
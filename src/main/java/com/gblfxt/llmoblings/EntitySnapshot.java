@@ -0,0 +1,122 @@
+package com.gblfxt.llmoblings;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The entities around companions this tick, bucketed by chunk column and shared by every
+ * companion in the level. Each column is read from the world once per tick, the first time any
+ * query touches it; every later query that tick (threat checks, targeting, item pickup, area
+ * summaries...) filters the cached buckets instead of searching entity sections again. Cost
+ * follows the number of nearby entities, not companions times queries. Players are found from
+ * the level's player list instead (see {@link #playersNear}).
+ *
+ * Entities are re-checked against the query box and for removal on every read, so items picked
+ * up or mobs killed earlier in the tick drop out. Entities spawned mid-tick show up next tick.
+ *
+ * Server thread only; client levels are queried directly.
+ */
+public class EntitySnapshot {
+
+    // Entities are bucketed by position but can stick out of their chunk by about this much
+    private static final int EDGE_PADDING = 2;
+
+    private static final Map<ResourceKey<Level>, EntitySnapshot> snapshots = new HashMap<>();
+
+    private final Level level;
+    private final long gameTime;
+    private final Long2ObjectOpenHashMap<List<Entity>> columns = new Long2ObjectOpenHashMap<>();
+
+    private EntitySnapshot(Level level) {
+        this.level = level;
+        this.gameTime = level.getGameTime();
+    }
+
+    /**
+     * The snapshot for this level and tick, starting a fresh one on the first call each tick.
+     */
+    public static EntitySnapshot of(Level level) {
+        EntitySnapshot snapshot = snapshots.get(level.dimension());
+        if (snapshot == null || snapshot.level != level || snapshot.gameTime != level.getGameTime()) {
+            snapshot = new EntitySnapshot(level);
+            snapshots.put(level.dimension(), snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Live players within range of an entity that pass the filter. There are only ever a few
+     * players, so this walks the level's player list instead of filling snapshot columns with
+     * every entity around them.
+     */
+    public static List<Player> playersNear(Entity center, double range, Predicate<? super Player> filter) {
+        List<Player> results = new ArrayList<>();
+        for (Player player : center.level().players()) {
+            if (player.isAlive() && player.distanceToSqr(center) <= range * range && filter.test(player)) {
+                results.add(player);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Live entities of a type whose bounding box touches the box and that pass the filter,
+     * like {@link Level#getEntitiesOfClass}.
+     */
+    public <T extends Entity> List<T> query(Class<T> type, AABB box, Predicate<? super T> filter) {
+        if (level.isClientSide()) {
+            return level.getEntitiesOfClass(type, box, filter);
+        }
+
+        List<T> results = new ArrayList<>();
+        int minCx = SectionPos.blockToSectionCoord(box.minX - EDGE_PADDING);
+        int maxCx = SectionPos.blockToSectionCoord(box.maxX + EDGE_PADDING);
+        int minCz = SectionPos.blockToSectionCoord(box.minZ - EDGE_PADDING);
+        int maxCz = SectionPos.blockToSectionCoord(box.maxZ + EDGE_PADDING);
+
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cz = minCz; cz <= maxCz; cz++) {
+                for (Entity entity : column(cx, cz)) {
+                    if (type.isInstance(entity) && !entity.isRemoved() && entity.getBoundingBox().intersects(box)) {
+                        T typed = type.cast(entity);
+                        if (filter.test(typed)) {
+                            results.add(typed);
+                        }
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    public <T extends Entity> List<T> query(Class<T> type, AABB box) {
+        return query(type, box, entity -> true);
+    }
+
+    private List<Entity> column(int cx, int cz) {
+        long key = ChunkPos.asLong(cx, cz);
+        List<Entity> column = columns.get(key);
+        if (column == null) {
+            // Only entities positioned in this column; ones poking in from a neighbor belong to that one
+            AABB bounds = new AABB(cx << 4, level.getMinBuildHeight(), cz << 4,
+                    (cx << 4) + 16, level.getMaxBuildHeight(), (cz << 4) + 16);
+            column = level.getEntities((Entity) null, bounds,
+                    entity -> SectionPos.blockToSectionCoord(entity.getBlockX()) == cx
+                            && SectionPos.blockToSectionCoord(entity.getBlockZ()) == cz);
+            columns.put(key, column);
+        }
+        return column;
+    }
+}
@@ -0,0 +1,332 @@
+package com.gblfxt.llmoblings;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.Container;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.level.BlockEvent;
+import net.neoforged.neoforge.event.level.ChunkEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-side index of interesting blocks (storage, ME access, portals, elevators, beds,
+ * crafting stations, "important" base blocks), bucketed by chunk.
+ *
+ * Block-based types are indexed lazily the first time a query touches a chunk, then kept
+ * current from block place/break/neighbor-update events and dropped on chunk load/unload.
+ * Block-entity types (containers, ME access) are answered from the chunks' own block-entity
+ * maps via {@link BlockEntitySearch}, which are always current. Queries only visit the chunks
+ * overlapping the search box, so cost scales with the number of results rather than the
+ * volume searched. Results are re-validated on read, so a missed update can never return
+ * a block that isn't there any more.
+ *
+ * Server thread only.
+ */
+@EventBusSubscriber(modid = LLMoblings.MOD_ID)
+public class PointOfInterestIndex {
+
+    public enum PoiType {
+        CONTAINER,
+        ME_ACCESS,
+        PORTAL,
+        ELEVATOR,
+        BED,
+        CRAFTING,
+        IMPORTANT
+    }
+
+    private static final Map<ResourceKey<Level>, Map<Long, ChunkEntry>> levels = new HashMap<>();
+
+    // Block-only classification (block entity types are checked separately)
+    private static final Map<Block, Set<PoiType>> blockTypes = new ConcurrentHashMap<>();
+
+    // ========== QUERIES ==========
+
+    /**
+     * Find all indexed blocks of a type within a box of +/-radius horizontally and
+     * +/-yRange vertically around center, nearest first.
+     */
+    public static List<BlockPos> find(Level level, BlockPos center, int radius, int yRange, PoiType type) {
+        if (type == PoiType.CONTAINER || type == PoiType.ME_ACCESS) {
+            return BlockEntitySearch.find(level, center, radius, yRange,
+                    be -> classify(be.getBlockState(), be).contains(type));
+        }
+
+        List<BlockPos> results = new ArrayList<>();
+        if (level.isClientSide()) {
+            return results;
+        }
+
+        for (int cx = (center.getX() - radius) >> 4; cx <= (center.getX() + radius) >> 4; cx++) {
+            for (int cz = (center.getZ() - radius) >> 4; cz <= (center.getZ() + radius) >> 4; cz++) {
+                findInChunk(level, cx, cz, center, radius, yRange, type, results);
+            }
+        }
+
+        results.sort(Comparator.comparingDouble(pos -> pos.distSqr(center)));
+        return results;
+    }
+
+    /**
+     * Add indexed blocks of a type in one chunk column that fall inside the search box to
+     * results, unsorted. Lets incremental scans work through an area chunk by chunk.
+     */
+    public static void findInChunk(Level level, int cx, int cz, BlockPos center, int radius, int yRange,
+                                   PoiType type, List<BlockPos> results) {
+        if (type == PoiType.CONTAINER || type == PoiType.ME_ACCESS) {
+            LevelChunk chunk = level.getChunkSource().getChunkNow(cx, cz);
+            if (chunk != null) {
+                BlockEntitySearch.findInChunk(chunk, center, radius, yRange,
+                        be -> classify(be.getBlockState(), be).contains(type), results);
+            }
+            return;
+        }
+        if (level.isClientSide()) {
+            return;
+        }
+
+        ChunkEntry entry = getOrIndex(level, cx, cz);
+        if (entry == null) return;
+
+        Set<BlockPos> positions = entry.byType.get(type);
+        if (positions == null) return;
+
+        int minX = center.getX() - radius, maxX = center.getX() + radius;
+        int minY = center.getY() - yRange, maxY = center.getY() + yRange;
+        int minZ = center.getZ() - radius, maxZ = center.getZ() + radius;
+
+        Iterator<BlockPos> it = positions.iterator();
+        while (it.hasNext()) {
+            BlockPos pos = it.next();
+            if (pos.getX() < minX || pos.getX() > maxX || pos.getY() < minY || pos.getY() > maxY
+                    || pos.getZ() < minZ || pos.getZ() > maxZ) {
+                continue;
+            }
+            if (!classify(level.getBlockState(pos), level.getBlockEntity(pos)).contains(type)) {
+                it.remove();  // Stale - block changed without an event we saw
+                continue;
+            }
+            results.add(pos);
+        }
+    }
+
+    /**
+     * Nearest indexed block of a type in the search box, or null.
+     */
+    public static BlockPos findNearest(Level level, BlockPos center, int radius, int yRange, PoiType type) {
+        List<BlockPos> results = find(level, center, radius, yRange, type);
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    // ========== CLASSIFICATION ==========
+
+    /**
+     * All POI types a block belongs to.
+     */
+    public static Set<PoiType> classify(BlockState state, BlockEntity be) {
+        Set<PoiType> types = getBlockTypes(state.getBlock());
+        if (be == null) {
+            return types;
+        }
+
+        EnumSet<PoiType> result = types.isEmpty() ? EnumSet.noneOf(PoiType.class) : EnumSet.copyOf(types);
+        if (be instanceof Container) {
+            result.add(PoiType.CONTAINER);
+        }
+        if (isMEBlockEntity(be)) {
+            result.add(PoiType.ME_ACCESS);
+        }
+        return result;
+    }
+
+    /**
+     * True for any Applied Energistics block entity (cables, terminals, interfaces, drives...).
+     */
+    public static boolean isMEBlockEntity(BlockEntity be) {
+        String className = be.getClass().getName().toLowerCase();
+        return className.contains("appeng") || className.contains("ae2");
+    }
+
+    /**
+     * True for blocks that mark a player's base (storage, workstations, lighting, doors...).
+     */
+    public static boolean isImportantBlock(BlockState state) {
+        return getBlockTypes(state.getBlock()).contains(PoiType.IMPORTANT);
+    }
+
+    private static Set<PoiType> getBlockTypes(Block block) {
+        return blockTypes.computeIfAbsent(block, PointOfInterestIndex::computeBlockTypes);
+    }
+
+    private static Set<PoiType> computeBlockTypes(Block block) {
+        int categories = BlockCategories.get(block);
+        EnumSet<PoiType> types = EnumSet.noneOf(PoiType.class);
+
+        if ((categories & BlockCategories.PORTAL) != 0) types.add(PoiType.PORTAL);
+        if ((categories & BlockCategories.ELEVATOR) != 0) types.add(PoiType.ELEVATOR);
+        if ((categories & BlockCategories.BED) != 0) types.add(PoiType.BED);
+        if ((categories & BlockCategories.CRAFTING) != 0) types.add(PoiType.CRAFTING);
+        if ((categories & BlockCategories.IMPORTANT) != 0) types.add(PoiType.IMPORTANT);
+
+        return types.isEmpty() ? Set.of() : types;
+    }
+
+    /**
+     * Forget cached block types and indexed chunks after the block categories were rebuilt.
+     */
+    static void invalidate() {
+        blockTypes.clear();
+        levels.clear();
+    }
+
+    // ========== INDEXING ==========
+
+    private static ChunkEntry getOrIndex(Level level, int cx, int cz) {
+        Map<Long, ChunkEntry> chunks = levels.computeIfAbsent(level.dimension(), k -> new HashMap<>());
+        long key = ChunkPos.asLong(cx, cz);
+        ChunkEntry entry = chunks.get(key);
+        if (entry != null) {
+            return entry;
+        }
+
+        // Only index chunks that are already loaded - never force generation/loading
+        LevelChunk chunk = level.getChunkSource().getChunkNow(cx, cz);
+        if (chunk == null) {
+            return null;
+        }
+
+        entry = indexChunk(chunk);
+        chunks.put(key, entry);
+        return entry;
+    }
+
+    private static ChunkEntry indexChunk(LevelChunk chunk) {
+        ChunkEntry entry = new ChunkEntry();
+
+        // Skip sections whose palette can't contain any POI block
+        LevelChunkSection[] sections = chunk.getSections();
+        int baseX = chunk.getPos().getMinBlockX();
+        int baseZ = chunk.getPos().getMinBlockZ();
+        for (int i = 0; i < sections.length; i++) {
+            LevelChunkSection section = sections[i];
+            if (section.hasOnlyAir() || !section.maybeHas(state -> !getBlockTypes(state.getBlock()).isEmpty())) {
+                continue;
+            }
+
+            int baseY = chunk.getSectionYFromSectionIndex(i) << 4;
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        Set<PoiType> types = getBlockTypes(section.getBlockState(x, y, z).getBlock());
+                        if (types.isEmpty()) continue;
+
+                        BlockPos pos = new BlockPos(baseX + x, baseY + y, baseZ + z);
+                        for (PoiType type : types) {
+                            entry.add(type, pos);
+                        }
+                    }
+                }
+            }
+        }
+
+        return entry;
+    }
+
+    private static void refresh(LevelAccessor accessor, BlockPos pos) {
+        if (!(accessor instanceof Level level) || level.isClientSide()) {
+            return;
+        }
+        Map<Long, ChunkEntry> chunks = levels.get(level.dimension());
+        if (chunks == null) return;
+        ChunkEntry entry = chunks.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        if (entry == null) return;  // Not indexed yet - will be picked up when first queried
+
+        BlockPos immutable = pos.immutable();
+        entry.remove(immutable);
+        for (PoiType type : getBlockTypes(level.getBlockState(pos).getBlock())) {
+            entry.add(type, immutable);
+        }
+    }
+
+    private static void dropChunk(LevelAccessor accessor, ChunkPos chunkPos) {
+        if (!(accessor instanceof Level level) || level.isClientSide()) {
+            return;
+        }
+        Map<Long, ChunkEntry> chunks = levels.get(level.dimension());
+        if (chunks != null) {
+            chunks.remove(chunkPos.toLong());
+        }
+    }
+
+    // ========== EVENTS ==========
+
+    @SubscribeEvent
+    public static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        // Fired after most block changes (players, pistons, explosions, our own companions)
+        refresh(event.getLevel(), event.getPos());
+    }
+
+    @SubscribeEvent
+    public static void onBlockPlaced(BlockEvent.EntityPlaceEvent event) {
+        refresh(event.getLevel(), event.getPos());
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onBlockBroken(BlockEvent.BreakEvent event) {
+        // Fired before removal; only act once nobody has cancelled it
+        if (!(event.getLevel() instanceof Level level) || level.isClientSide()) {
+            return;
+        }
+        Map<Long, ChunkEntry> chunks = levels.get(level.dimension());
+        if (chunks == null) return;
+        ChunkEntry entry = chunks.get(ChunkPos.asLong(event.getPos().getX() >> 4, event.getPos().getZ() >> 4));
+        if (entry != null) {
+            entry.remove(event.getPos().immutable());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event) {
+        // Anything we had for this chunk may be out of date
+        dropChunk(event.getLevel(), event.getChunk().getPos());
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        dropChunk(event.getLevel(), event.getChunk().getPos());
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof Level level && !level.isClientSide()) {
+            levels.remove(level.dimension());
+        }
+    }
+
+    private static class ChunkEntry {
+        private final EnumMap<PoiType, Set<BlockPos>> byType = new EnumMap<>(PoiType.class);
+
+        void add(PoiType type, BlockPos pos) {
+            byType.computeIfAbsent(type, k -> new HashSet<>()).add(pos);
+        }
+
+        void remove(BlockPos pos) {
+            for (Set<BlockPos> positions : byType.values()) {
+                positions.remove(pos);
+            }
+        }
+    }
+}
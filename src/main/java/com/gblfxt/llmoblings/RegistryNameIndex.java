@@ -0,0 +1,278 @@
+package com.gblfxt.llmoblings;
+
+import net.minecraft.core.Holder;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.level.block.Block;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
+
+import java.util.*;
+
+/**
+ * Resolves what players call a block or item ("iron", "oak log", "minecraft:cobblestone",
+ * "diamnod") to registry entries without walking the whole registry for every command.
+ *
+ * Built once from the frozen registry and its tags:
+ * - exact ids and paths
+ * - an inverted index from path tokens ("deepslate", "iron", "ore") to entries
+ * - aliases from common tags, so "iron" finds every iron ore including deepslate and modded
+ *   ones in c:ores/iron, and hand-written ones like "wood" for all logs
+ * - a token vocabulary for fuzzy matching of misspelled words
+ *
+ * Rebuilt when the server reloads tags, since aliases come from tags.
+ */
+@EventBusSubscriber(modid = LLMoblings.MOD_ID)
+public class RegistryNameIndex<T> {
+
+    public static final RegistryNameIndex<Block> BLOCKS = new RegistryNameIndex<>(BuiltInRegistries.BLOCK,
+            List.of("ores"),
+            Map.of("wood", BlockTags.LOGS, "logs", BlockTags.LOGS, "log", BlockTags.LOGS,
+                   "leaves", BlockTags.LEAVES, "planks", BlockTags.PLANKS),
+            Map.of("cobble", "cobblestone"));
+
+    public static final RegistryNameIndex<Item> ITEMS = new RegistryNameIndex<>(BuiltInRegistries.ITEM,
+            List.of("ingots", "gems", "raw_materials", "ores", "dusts", "nuggets"),
+            Map.of(),
+            Map.of("cobble", "cobblestone"));
+
+    private final Registry<T> registry;
+    // Tag folders under the c: namespace whose last path part is a usable name (c:ores/iron -> "iron")
+    private final List<String> aliasTagGroups;
+    private final Map<String, TagKey<T>> tagAliases;
+    private final Map<String, String> nameAliases;
+
+    private volatile Index<T> index;
+
+    private RegistryNameIndex(Registry<T> registry, List<String> aliasTagGroups,
+                              Map<String, TagKey<T>> tagAliases, Map<String, String> nameAliases) {
+        this.registry = registry;
+        this.aliasTagGroups = aliasTagGroups;
+        this.tagAliases = tagAliases;
+        this.nameAliases = nameAliases;
+    }
+
+    // ========== LOOKUPS ==========
+
+    /**
+     * Everything a name could mean, best matches first. Tries, in order: a full id, exact
+     * paths (plus the rest of their ore/material group), aliases, entries whose path has every
+     * word of the name, and finally the same with misspelled words corrected. Empty if nothing fits.
+     */
+    public Set<T> resolve(String name) {
+        Index<T> idx = get();
+        String term = normalize(name);
+        if (term.isEmpty()) {
+            return Set.of();
+        }
+        term = nameAliases.getOrDefault(term, term);
+
+        if (term.contains(":")) {
+            ResourceLocation id = ResourceLocation.tryParse(term);
+            T entry = id == null ? null : idx.byId.get(id);
+            return entry == null ? Set.of() : Set.of(entry);
+        }
+
+        Set<T> results = new LinkedHashSet<>();
+        List<T> exact = idx.byPath.get(term);
+        if (exact != null) {
+            results.addAll(exact);
+            for (T entry : exact) {
+                results.addAll(idx.groupOf.getOrDefault(entry, List.of()));
+            }
+            return results;
+        }
+
+        Set<T> alias = idx.aliases.get(term);
+        if (alias != null) {
+            // Shared with the index - callers get a read-only view
+            return Collections.unmodifiableSet(alias);
+        }
+
+        List<String> tokens = List.of(term.split("_"));
+        results.addAll(withAllTokens(idx, tokens));
+        if (!results.isEmpty()) {
+            return results;
+        }
+
+        // Fuzzy: swap each unknown word for the closest known one
+        List<String> corrected = new ArrayList<>();
+        for (String token : tokens) {
+            String match = idx.byToken.containsKey(token) ? token : closestToken(idx, token);
+            if (match == null) {
+                return Set.of();
+            }
+            corrected.add(match);
+        }
+        String correctedTerm = String.join("_", corrected);
+        if (idx.byPath.containsKey(correctedTerm) || idx.aliases.containsKey(correctedTerm)) {
+            return resolve(correctedTerm);
+        }
+        return withAllTokens(idx, corrected);
+    }
+
+    /**
+     * The single best entry for a name (an exact id or path if there is one, vanilla first,
+     * otherwise the shortest matching path), or null.
+     */
+    public T resolveOne(String name) {
+        Index<T> idx = get();
+        String term = nameAliases.getOrDefault(normalize(name), normalize(name));
+
+        List<T> exact = idx.byPath.get(term);
+        if (exact != null) {
+            for (T entry : exact) {
+                if (registry.getKey(entry).getNamespace().equals(ResourceLocation.DEFAULT_NAMESPACE)) {
+                    return entry;
+                }
+            }
+            return exact.get(0);
+        }
+
+        T best = null;
+        int bestLength = Integer.MAX_VALUE;
+        for (T entry : resolve(name)) {
+            int length = registry.getKey(entry).getPath().length();
+            if (length < bestLength) {
+                best = entry;
+                bestLength = length;
+            }
+        }
+        return best;
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", "_");
+    }
+
+    private static <T> Set<T> withAllTokens(Index<T> idx, List<String> tokens) {
+        // Intersect starting from the rarest token
+        List<List<T>> postings = new ArrayList<>();
+        for (String token : tokens) {
+            List<T> posting = idx.byToken.get(token);
+            if (posting == null) {
+                return Set.of();
+            }
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(List::size));
+
+        Set<T> results = new LinkedHashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !results.isEmpty(); i++) {
+            results.retainAll(new HashSet<>(postings.get(i)));
+        }
+        return results;
+    }
+
+    private static String closestToken(Index<?> idx, String token) {
+        int maxDistance = token.length() <= 4 ? 1 : 2;
+        String best = null;
+        int bestDistance = maxDistance + 1;
+        for (String candidate : idx.byToken.keySet()) {
+            if (Math.abs(candidate.length() - token.length()) > maxDistance) continue;
+            int distance = editDistance(token, candidate, bestDistance);
+            if (distance < bestDistance) {
+                best = candidate;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Levenshtein distance, giving up (returning limit) once every path exceeds the limit.
+     */
+    private static int editDistance(String a, String b, int limit) {
+        int[] prev = new int[b.length() + 1];
+        int[] curr = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) prev[j] = j;
+
+        for (int i = 1; i <= a.length(); i++) {
+            curr[0] = i;
+            int rowMin = curr[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                curr[j] = Math.min(Math.min(curr[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                rowMin = Math.min(rowMin, curr[j]);
+            }
+            if (rowMin >= limit) {
+                return limit;
+            }
+            int[] swap = prev;
+            prev = curr;
+            curr = swap;
+        }
+        return prev[b.length()];
+    }
+
+    // ========== BUILDING ==========
+
+    private Index<T> get() {
+        Index<T> current = index;
+        if (current == null) {
+            current = rebuild();
+        }
+        return current;
+    }
+
+    private synchronized Index<T> rebuild() {
+        Index<T> built = new Index<>();
+
+        for (var entry : registry.entrySet()) {
+            ResourceLocation id = entry.getKey().location();
+            T value = entry.getValue();
+
+            built.byId.put(id, value);
+            built.byPath.computeIfAbsent(id.getPath(), k -> new ArrayList<>()).add(value);
+            for (String token : id.getPath().split("_")) {
+                built.byToken.computeIfAbsent(token, k -> new ArrayList<>()).add(value);
+            }
+        }
+
+        // c:ores/iron -> "iron", and every iron ore knows its siblings
+        registry.getTags().forEach(pair -> {
+            ResourceLocation tagId = pair.getFirst().location();
+            if (!tagId.getNamespace().equals("c")) return;
+
+            String[] parts = tagId.getPath().split("/");
+            if (parts.length != 2 || !aliasTagGroups.contains(parts[0])) return;
+
+            List<T> members = pair.getSecond().stream().map(Holder::value).toList();
+            built.aliases.computeIfAbsent(parts[1], k -> new LinkedHashSet<>()).addAll(members);
+            for (T member : members) {
+                built.groupOf.computeIfAbsent(member, k -> new ArrayList<>()).addAll(members);
+            }
+        });
+
+        tagAliases.forEach((alias, tag) -> registry.getTag(tag).ifPresent(set -> {
+            Set<T> members = built.aliases.computeIfAbsent(alias, k -> new LinkedHashSet<>());
+            set.forEach(holder -> members.add(holder.value()));
+        }));
+
+        index = built;
+        LLMoblings.LOGGER.debug("Indexed {} names ({} words, {} aliases) for {}",
+                built.byId.size(), built.byToken.size(), built.aliases.size(), registry.key().location());
+        return built;
+    }
+
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        if (event.getUpdateCause() == TagsUpdatedEvent.UpdateCause.SERVER_DATA_LOAD) {
+            BLOCKS.rebuild();
+            ITEMS.rebuild();
+        }
+    }
+
+    private static class Index<T> {
+        final Map<ResourceLocation, T> byId = new HashMap<>();
+        final Map<String, List<T>> byPath = new HashMap<>();
+        final Map<String, List<T>> byToken = new HashMap<>();
+        final Map<String, Set<T>> aliases = new HashMap<>();
+        final Map<T, List<T>> groupOf = new IdentityHashMap<>();
+    }
+}
@@ -0,0 +1,194 @@
+package com.gblfxt.llmoblings;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A world scan split into small units of work (usually one chunk column each) so a large
+ * search never lands in a single server tick. The owner calls {@link #tick()} every game tick;
+ * units run until the configured per-tick time budget is spent, and the job continues where it
+ * left off next tick. Units may queue follow-up units, e.g. "read every container the chunk
+ * pass found", or wait for analysis running on {@link SnapshotScanner}'s workers. Once the last
+ * unit has run, the result is handed to the completion callback.
+ *
+ * Server thread only.
+ */
+public class ScanJob<T> {
+
+    private final String name;
+    private final Deque<Runnable> pending = new ArrayDeque<>();
+    private final Supplier<T> result;
+    private final Consumer<T> onComplete;
+
+    private int completedUnits = 0;
+    private boolean finished = false;
+    private boolean cancelled = false;
+    private Future<?> waitingOn = null;
+
+    public ScanJob(String name, Supplier<T> result, Consumer<T> onComplete) {
+        this.name = name;
+        this.result = result;
+        this.onComplete = onComplete;
+    }
+
+    /**
+     * Queue a unit of work. May be called from inside a running unit.
+     */
+    public ScanJob<T> then(Runnable unit) {
+        pending.add(unit);
+        return this;
+    }
+
+    /**
+     * Queue one unit per chunk column overlapping +/-radius around center. Chunks that
+     * aren't loaded when their turn comes are skipped - nothing is loaded or generated.
+     */
+    public ScanJob<T> forEachChunk(Level level, BlockPos center, int radius, Consumer<LevelChunk> visitor) {
+        int minCx = (center.getX() - radius) >> 4, maxCx = (center.getX() + radius) >> 4;
+        int minCz = (center.getZ() - radius) >> 4, maxCz = (center.getZ() + radius) >> 4;
+
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cz = minCz; cz <= maxCz; cz++) {
+                int chunkX = cx, chunkZ = cz;
+                then(() -> {
+                    LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+                    if (chunk != null) {
+                        visitor.accept(chunk);
+                    }
+                });
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Queue a wait for background work. The supplier is called when the wait is reached
+     * (normally it returns a future started by an earlier unit); the job gives up the rest of
+     * each tick until that future completes, then carries on with the following units.
+     */
+    public ScanJob<T> await(Supplier<? extends Future<?>> background) {
+        return then(new Runnable() {
+            private Future<?> future;
+
+            @Override
+            public void run() {
+                if (future == null) {
+                    future = background.get();
+                }
+                if (future != null && !future.isDone()) {
+                    pending.addFirst(this);
+                    completedUnits--;  // Not done yet - don't count the retry
+                    waitingOn = future;
+                }
+            }
+        });
+    }
+
+    // ========== RUNNING ==========
+
+    /**
+     * Run units until the configured per-tick budget is spent. Returns true once the job is done.
+     */
+    public boolean tick() {
+        return tick(Config.SCAN_BUDGET_MICROS.get());
+    }
+
+    /**
+     * Run units for up to budgetMicros (always at least one, so the job makes progress).
+     * Returns true once the job is done.
+     */
+    public boolean tick(long budgetMicros) {
+        if (isDone()) {
+            return true;
+        }
+
+        long deadline = budgetMicros == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + budgetMicros * 1000L;
+        waitingOn = null;
+        do {
+            Runnable unit = pending.poll();
+            if (unit == null) {
+                break;
+            }
+            try {
+                unit.run();
+            } catch (Exception e) {
+                LLMoblings.LOGGER.debug("Scan '{}' unit failed: {}", name, e.getMessage());
+            }
+            completedUnits++;
+        } while (waitingOn == null && System.nanoTime() < deadline);
+
+        if (pending.isEmpty() && !cancelled) {
+            finished = true;
+            onComplete.accept(result.get());
+        }
+        return isDone();
+    }
+
+    /**
+     * Run the whole job right now, ignoring the budget, and return its result.
+     * For callers that need an answer this tick.
+     */
+    public T runNow() {
+        while (!tick(Long.MAX_VALUE)) {
+            try {
+                waitingOn.get();
+            } catch (Exception e) {
+                // The waiting unit sees the failure itself once it's done
+            }
+        }
+        return result.get();
+    }
+
+    /**
+     * Stop the job. Queued units are dropped and the completion callback is never called.
+     */
+    public void cancel() {
+        cancelled = true;
+        pending.clear();
+    }
+
+    /**
+     * Tick the first job of a sequence, dropping it once done, so the whole sequence
+     * shares one budget per tick. Returns true once every job has finished.
+     */
+    public static boolean tickSequence(Deque<ScanJob<?>> jobs) {
+        ScanJob<?> job = jobs.peek();
+        if (job != null && job.tick()) {
+            jobs.poll();
+        }
+        return jobs.isEmpty();
+    }
+
+    // ========== STATUS ==========
+
+    public boolean isDone() {
+        return finished || cancelled;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Fraction of known units completed. Follow-up units queued along the way are counted
+     * once they're known, so this can dip as a scan discovers more work.
+     */
+    public float getProgress() {
+        if (finished) {
+            return 1.0f;
+        }
+        int total = completedUnits + pending.size();
+        return total == 0 ? 0.0f : (float) completedUnits / total;
+    }
+}
@@ -0,0 +1,55 @@
+package com.gblfxt.llmoblings;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Worker pool for heavy world analysis (ore searches, protected-zone detection...) over
+ * {@link WorldSnapshot}s, keeping it off the server thread and spreading big scans across cores.
+ *
+ * Every submission gets a generation stamp. Owners remember the stamp of their latest request
+ * and drop any result carrying an older one, so a slow scan can never overwrite a newer answer.
+ * Results are polled from the owner's tick, which keeps all world access on the server thread.
+ */
+public class SnapshotScanner {
+
+    private static final AtomicLong generations = new AtomicLong();
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private static final ExecutorService workers = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)), runnable -> {
+                Thread thread = new Thread(runnable, "LLMoblings-Scan-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            });
+
+    /**
+     * A finished analysis and the generation of the request that produced it.
+     */
+    public record Result<T>(long generation, T value) {}
+
+    /**
+     * Stamp for a new request. Owners keep the latest one to recognize stale results.
+     */
+    public static long nextGeneration() {
+        return generations.incrementAndGet();
+    }
+
+    /**
+     * Run an analysis over a snapshot on the worker pool.
+     */
+    public static <T> CompletableFuture<Result<T>> submit(long generation, WorldSnapshot snapshot,
+                                                          Function<WorldSnapshot, T> analysis) {
+        return CompletableFuture.supplyAsync(() -> new Result<>(generation, analysis.apply(snapshot)), workers)
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        LLMoblings.LOGGER.warn("Background world scan failed: {}", error.getMessage());
+                    }
+                });
+    }
+}
@@ -0,0 +1,125 @@
+package com.gblfxt.llmoblings;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import net.minecraft.world.entity.Entity;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.util.Arrays;
+
+/**
+ * One companion's periodic jobs (item sweeps, gear checks, chunk loading updates, threat
+ * scans...), spread out so companions spawned or loaded together don't all do the same work on
+ * the same tick.
+ *
+ * Each job runs once per period, on a tick offset by a phase hashed from the companion's UUID
+ * and the job, instead of on tickCount % period. All companions also share a per-tick budget of
+ * job cost ({@link Config#WORK_BUDGET_PER_TICK}); a job that finds the budget spent is deferred
+ * and retried on the following ticks. A job deferred for a whole period runs regardless, so a
+ * small budget slows work down but never stops it. Jobs that only matter to someone watching
+ * can be stretched with {@link #setSlowdown} while no player is near.
+ *
+ * Server thread only.
+ */
+@EventBusSubscriber(modid = LLMoblings.MOD_ID)
+public class WorkScheduler {
+
+    public enum Job {
+        ITEM_SWEEP(20, 1, true),
+        EQUIPMENT(20, 1, true),
+        FLIGHT_CHECK(20, 1, true),
+        DETAIL_CHECK(20, 1, false),
+        EAT(40, 1, true),
+        BOAT_CHECK(40, 1, true),
+        MAP_MARKER(40, 1, true),
+        CHUNK_LOADING(100, 2, false),
+        THREAT_SCAN(40, 2, true),
+        WANDER(100, 2, true),
+        // Long jobs far from every player; the period comes from config
+        SIMULATION_STEP(4, 1, false),
+        // Not periodic: asked for until granted
+        ASSESSMENT(1, 4, false);
+
+        private final int period;
+        private final int cost;
+        // Whether the period stretches with the slowdown while no player is near
+        private final boolean stretches;
+
+        Job(int period, int cost, boolean stretches) {
+            this.period = period;
+            this.cost = cost;
+            this.stretches = stretches;
+        }
+    }
+
+    // Cost spent by all companions so far this tick
+    private static int spent = 0;
+
+    private final Entity owner;
+    // Tick count when each job was first turned away, or -1 if it isn't waiting
+    private final int[] deferredSince = new int[Job.values().length];
+    private int slowdown = 1;
+
+    public WorkScheduler(Entity owner) {
+        this.owner = owner;
+        Arrays.fill(deferredSince, -1);
+    }
+
+    /**
+     * True if the job should run this tick. Call once per tick per job; a job that's due but
+     * over budget stays due until it gets its turn.
+     */
+    public boolean isDue(Job job) {
+        return isDue(job, job.period);
+    }
+
+    /**
+     * {@link #isDue(Job)} with the period given by the caller, for jobs whose period is configurable.
+     */
+    public boolean isDue(Job job, int basePeriod) {
+        int tick = owner.tickCount;
+        int waitingSince = deferredSince[job.ordinal()];
+
+        int period = Math.max(1, job.stretches ? basePeriod * slowdown : basePeriod);
+        if (waitingSince < 0 && Math.floorMod(tick + phase(job), period) != 0) {
+            return false;
+        }
+
+        boolean starving = waitingSince >= 0 && tick - waitingSince >= period;
+        if (!starving && spent + job.cost > Config.WORK_BUDGET_PER_TICK.get()) {
+            if (waitingSince < 0) {
+                deferredSince[job.ordinal()] = tick;
+            }
+            return false;
+        }
+
+        spent += job.cost;
+        deferredSince[job.ordinal()] = -1;
+        return true;
+    }
+
+    /**
+     * Run stretchable jobs this many times less often. 1 is full rate.
+     */
+    public void setSlowdown(int slowdown) {
+        this.slowdown = Math.max(1, slowdown);
+    }
+
+    /**
+     * Forget a deferred request, for jobs the caller no longer wants.
+     */
+    public void cancel(Job job) {
+        deferredSince[job.ordinal()] = -1;
+    }
+
+    private int phase(Job job) {
+        // The UUID is read each time since loading a companion replaces the one it spawned with
+        return HashCommon.mix(owner.getUUID().hashCode() + job.ordinal() * 0x9E3779B9);
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Pre event) {
+        spent = 0;
+    }
+}
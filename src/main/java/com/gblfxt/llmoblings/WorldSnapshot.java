@@ -0,0 +1,143 @@
+package com.gblfxt.llmoblings;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.Container;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Immutable copy of the block states in a box around a point, taken on the server thread and
+ * safe to read from any thread afterwards. Capturing only copies the sections' paletted
+ * containers (plain array copies), so it's cheap; the expensive analysis can then run on
+ * {@link SnapshotScanner}'s workers without touching the live world.
+ *
+ * Container positions are captured too, since block entities can't be read off-thread.
+ */
+public class WorldSnapshot {
+
+    private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+
+    private final int minX, minY, minZ, maxX, maxY, maxZ;
+    private final int minSectionY;
+    private final Long2ObjectOpenHashMap<PalettedContainer<BlockState>[]> chunks = new Long2ObjectOpenHashMap<>();
+    private final List<BlockPos> containers = new ArrayList<>();
+
+    private WorldSnapshot(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+        this.minSectionY = minY >> 4;
+    }
+
+    /**
+     * Copy the loaded chunks within +/-radius horizontally and +/-yRange vertically of center.
+     * Server thread only. Unloaded chunks are left out and read as air.
+     */
+    @SuppressWarnings("unchecked")
+    public static WorldSnapshot capture(Level level, BlockPos center, int radius, int yRange) {
+        WorldSnapshot snapshot = new WorldSnapshot(
+                center.getX() - radius,
+                Math.max(center.getY() - yRange, level.getMinBuildHeight()),
+                center.getZ() - radius,
+                center.getX() + radius,
+                Math.min(center.getY() + yRange, level.getMaxBuildHeight() - 1),
+                center.getZ() + radius);
+
+        int sectionCount = (snapshot.maxY >> 4) - snapshot.minSectionY + 1;
+        for (int cx = snapshot.minX >> 4; cx <= snapshot.maxX >> 4; cx++) {
+            for (int cz = snapshot.minZ >> 4; cz <= snapshot.maxZ >> 4; cz++) {
+                LevelChunk chunk = level.getChunkSource().getChunkNow(cx, cz);
+                if (chunk == null) continue;
+
+                PalettedContainer<BlockState>[] sections = new PalettedContainer[sectionCount];
+                for (int i = 0; i < sectionCount; i++) {
+                    LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(snapshot.minSectionY + i));
+                    if (!section.hasOnlyAir()) {
+                        sections[i] = section.getStates().copy();
+                    }
+                }
+                snapshot.chunks.put(ChunkPos.asLong(cx, cz), sections);
+
+                BlockEntitySearch.findInChunk(chunk, center, radius, yRange,
+                        be -> be instanceof Container, snapshot.containers);
+            }
+        }
+        return snapshot;
+    }
+
+    // ========== READS (any thread) ==========
+
+    public BlockState getBlockState(int x, int y, int z) {
+        if (x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ) {
+            return AIR;
+        }
+        PalettedContainer<BlockState>[] sections = chunks.get(ChunkPos.asLong(x >> 4, z >> 4));
+        if (sections == null) {
+            return AIR;
+        }
+        PalettedContainer<BlockState> section = sections[(y >> 4) - minSectionY];
+        return section == null ? AIR : section.get(x & 15, y & 15, z & 15);
+    }
+
+    public BlockState getBlockState(BlockPos pos) {
+        return getBlockState(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * Visit every position in the snapshot whose state matches. Sections whose palette
+     * can't contain a match are skipped without reading a single block.
+     */
+    public void forEachMatching(Predicate<BlockState> matches, Consumer<BlockPos> action) {
+        for (var entry : chunks.long2ObjectEntrySet()) {
+            int baseX = ChunkPos.getX(entry.getLongKey()) << 4;
+            int baseZ = ChunkPos.getZ(entry.getLongKey()) << 4;
+            PalettedContainer<BlockState>[] sections = entry.getValue();
+
+            for (int i = 0; i < sections.length; i++) {
+                PalettedContainer<BlockState> section = sections[i];
+                if (section == null || !section.maybeHas(matches)) continue;
+
+                int baseY = (minSectionY + i) << 4;
+                int x0 = Math.max(minX, baseX) - baseX, x1 = Math.min(maxX, baseX + 15) - baseX;
+                int y0 = Math.max(minY, baseY) - baseY, y1 = Math.min(maxY, baseY + 15) - baseY;
+                int z0 = Math.max(minZ, baseZ) - baseZ, z1 = Math.min(maxZ, baseZ + 15) - baseZ;
+
+                for (int y = y0; y <= y1; y++) {
+                    for (int z = z0; z <= z1; z++) {
+                        for (int x = x0; x <= x1; x++) {
+                            if (matches.test(section.get(x, y, z))) {
+                                action.accept(new BlockPos(baseX + x, baseY + y, baseZ + z));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Positions of containers in the box at capture time.
+     */
+    public List<BlockPos> getContainers() {
+        return Collections.unmodifiableList(containers);
+    }
+
+    public int getChunkCount() {
+        return chunks.size();
+    }
+}
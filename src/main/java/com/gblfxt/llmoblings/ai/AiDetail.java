@@ -0,0 +1,41 @@
+package com.gblfxt.llmoblings.ai;
+
+import com.gblfxt.llmoblings.Config;
+import com.gblfxt.llmoblings.entity.CompanionEntity;
+
+/**
+ * How closely a companion's AI is simulated, chosen by distance to the nearest player.
+ * Companions in force-loaded chunks far from everyone don't need chatter, frequent item sweeps,
+ * scans or re-pathing at full rate, and long jobs can advance in coarser steps. Re-evaluated
+ * about once a second, so a player walking up gets full detail back almost immediately.
+ */
+public enum AiDetail {
+    /** A player is close enough to see the companion: everything runs at full rate. */
+    FULL,
+    /** Nobody nearby: personality, item sweeps, scans and re-pathing slow down. */
+    REDUCED,
+    /** Nobody for a long way and busy with a long job: the job itself only runs every few ticks. */
+    SIMULATED;
+
+    public static AiDetail evaluate(CompanionEntity companion) {
+        if (!Config.AI_LOD_ENABLED.get()) {
+            return FULL;
+        }
+        double x = companion.getX(), y = companion.getY(), z = companion.getZ();
+        if (companion.level().hasNearbyAlivePlayer(x, y, z, Config.AI_FULL_DETAIL_RANGE.get())) {
+            return FULL;
+        }
+        if (companion.level().hasNearbyAlivePlayer(x, y, z, Config.AI_SIMULATION_RANGE.get())) {
+            return REDUCED;
+        }
+        CompanionAI ai = companion.getAIController();
+        return ai != null && ai.isOnLongJob() ? SIMULATED : REDUCED;
+    }
+
+    /**
+     * How many times less often periodic work that only matters to an onlooker runs.
+     */
+    public int slowdown() {
+        return this == FULL ? 1 : Config.AI_REDUCED_SLOWDOWN.get();
+    }
+}
@@ -1,16 +1,20 @@
 package com.gblfxt.llmoblings.ai;
 
+import com.gblfxt.llmoblings.BlockCategories;
+import com.gblfxt.llmoblings.BlockEntitySearch;
 import com.gblfxt.llmoblings.ChunkLoadingManager;
+import com.gblfxt.llmoblings.EntityCategories;
+import com.gblfxt.llmoblings.EntitySnapshot;
 import com.gblfxt.llmoblings.LLMoblings;
+import com.gblfxt.llmoblings.ScanJob;
+import com.gblfxt.llmoblings.WorkScheduler;
 import com.gblfxt.llmoblings.compat.AE2Integration;
 import com.gblfxt.llmoblings.entity.CompanionEntity;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.Container;
 import net.minecraft.world.entity.EquipmentSlot;
-import net.minecraft.world.entity.animal.*;
-import net.minecraft.world.entity.animal.horse.AbstractHorse;
-import net.minecraft.world.entity.monster.Monster;
+import net.minecraft.world.entity.TamableAnimal;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.world.item.*;
@@ -49,6 +53,8 @@ public class AutonomousTask {
 
     // Resource tracking
     private final Map<String, Integer> baseResources = new HashMap<>();
+    private final Deque<ScanJob<?>> assessmentScans = new ArrayDeque<>();
+    private boolean assessmentStarted = false;
     private final List<String> needs = new ArrayList<>();
     private int foodCount = 0;
     private boolean hasWeapon = false;
@@ -99,138 +105,160 @@ public class AutonomousTask {
     }
 
     private void tickAssessing() {
-        if (ticksInState == 1) {
+        if (!assessmentStarted) {
+            // Surveys are heavy; wait for a tick where the work budget has room
+            if (!companion.getSchedule().isDue(WorkScheduler.Job.ASSESSMENT)) {
+                return;
+            }
+            assessmentStarted = true;
+            ticksInState = 1;
             report("Assessing the area...");
+            startAssessment();
         }
 
-        // Scan for storage containers
-        if (ticksInState == 20) {
-            scanStorage();
-        }
-
-        // Check own inventory
-        if (ticksInState == 40) {
-            assessSelf();
-        }
+        // Survey storage, the ME network and our own gear a budgeted slice per tick
+        boolean surveyed = ScanJob.tickSequence(assessmentScans);
 
         // Determine needs and next action
-        if (ticksInState >= 60) {
+        if (surveyed && ticksInState >= 60) {
             determineNextAction();
         }
     }
 
-    private void scanStorage() {
+    private void startAssessment() {
+        assessmentScans.forEach(ScanJob::cancel);
+        assessmentScans.clear();
         baseResources.clear();
-        List<BlockPos> storageBlocks = findStorageContainers();
 
-        for (BlockPos pos : storageBlocks) {
-            BlockEntity be = companion.level().getBlockEntity(pos);
-            if (be instanceof Container container) {
-                for (int i = 0; i < container.getContainerSize(); i++) {
-                    ItemStack stack = container.getItem(i);
-                    if (!stack.isEmpty()) {
-                        String name = stack.getItem().toString();
-                        baseResources.merge(name, stack.getCount(), Integer::sum);
-                    }
-                }
-            }
-        }
+        assessmentScans.add(scanStorage());
+        assessmentScans.add(scanMENetwork());
+        assessmentScans.add(new ScanJob<Void>("self", () -> null, result -> {}).then(this::assessSelf));
+    }
 
-        if (!storageBlocks.isEmpty()) {
-            targetStorage = storageBlocks.get(0);
-        }
+    private ScanJob<List<BlockPos>> scanStorage() {
+        BlockPos center = companion.blockPosition();
+        List<BlockPos> storageBlocks = new ArrayList<>();
+        Map<String, Integer> storageTypes = new HashMap<>();
 
-        // Also check for AE2 ME networks
-        List<BlockPos> meAccessPoints = AE2Integration.findMEAccessPoints(
-                companion.level(), companion.blockPosition(), baseRadius);
+        ScanJob<List<BlockPos>> job = new ScanJob<>("storage", () -> storageBlocks, found -> {
+            found.sort(Comparator.comparingDouble(pos -> pos.distSqr(center)));
+            if (!found.isEmpty()) {
+                targetStorage = found.get(0);
+            }
+            reportStorageTypes(storageTypes);
 
-        if (!meAccessPoints.isEmpty()) {
-            meAccessPoint = meAccessPoints.get(0);
+            LLMoblings.LOGGER.debug("Scanned {} storage containers, found {} item types",
+                    found.size(), baseResources.size());
+        });
 
-            // Query ME network for available items
-            List<ItemStack> meItems = AE2Integration.queryAvailableItems(
-                    companion.level(), meAccessPoint,
-                    stack -> true  // Get all items
-            );
+        job.forEachChunk(companion.level(), center, baseRadius, chunk -> {
+            List<BlockPos> containers = new ArrayList<>();
+            BlockEntitySearch.findInChunk(chunk, center, baseRadius, 5, be -> be instanceof Container, containers);
 
-            for (ItemStack stack : meItems) {
-                String name = stack.getItem().toString();
-                baseResources.merge(name, stack.getCount(), Integer::sum);
-            }
+            for (BlockPos pos : containers) {
+                String type = classifyStorage(pos);
+                if (type == null) continue;
 
-            report("Found ME network access point!");
-        }
+                storageBlocks.add(pos);
+                storageTypes.merge(type, 1, Integer::sum);
 
-        LLMoblings.LOGGER.debug("Scanned {} storage containers + {} ME access points, found {} item types",
-                storageBlocks.size(), meAccessPoints.size(), baseResources.size());
+                // Read contents separately so a chunk full of chests doesn't land in one tick
+                job.then(() -> countContents(pos));
+            }
+        });
+        return job;
     }
 
-    private List<BlockPos> findStorageContainers() {
-        List<BlockPos> containers = new ArrayList<>();
-        BlockPos center = companion.blockPosition();
-        Map<String, Integer> storageTypes = new HashMap<>();
+    private ScanJob<List<BlockPos>> scanMENetwork() {
+        return AE2Integration.scanMEAccessPoints(companion.level(), companion.blockPosition(), baseRadius,
+                this::onMEAccessPointsFound);
+    }
 
-        for (int x = -baseRadius; x <= baseRadius; x++) {
-            for (int y = -5; y <= 5; y++) {
-                for (int z = -baseRadius; z <= baseRadius; z++) {
-                    BlockPos pos = center.offset(x, y, z);
+    private void onMEAccessPointsFound(List<BlockPos> meAccessPoints) {
+        if (meAccessPoints.isEmpty()) {
+            return;
+        }
+        meAccessPoint = meAccessPoints.get(0);
 
-                    // Skip blocks outside loaded chunks
-                    if (!ChunkLoadingManager.isBlockInLoadedChunks(companion, pos)) {
-                        continue;
-                    }
+        // Query ME network for available items
+        List<ItemStack> meItems = AE2Integration.queryAvailableItems(
+                companion.level(), meAccessPoint,
+                stack -> true  // Get all items
+        );
 
-                    BlockEntity be = companion.level().getBlockEntity(pos);
+        for (ItemStack stack : meItems) {
+            String name = stack.getItem().toString();
+            baseResources.merge(name, stack.getCount(), Integer::sum);
+        }
 
-                    // Check for various storage types
-                    if (be instanceof Container) {
-                        String blockName = companion.level().getBlockState(pos).getBlock().getName().getString().toLowerCase();
+        report("Found ME network access point!");
+        LLMoblings.LOGGER.debug("Scanned {} ME access points, now {} item types",
+                meAccessPoints.size(), baseResources.size());
+    }
 
-                        // Vanilla storage
-                        if (be instanceof ChestBlockEntity) {
-                            containers.add(pos);
-                            storageTypes.merge("Chests", 1, Integer::sum);
-                        } else if (be instanceof BarrelBlockEntity) {
-                            containers.add(pos);
-                            storageTypes.merge("Barrels", 1, Integer::sum);
-                        }
-                        // Shulker boxes
-                        else if (blockName.contains("shulker")) {
-                            containers.add(pos);
-                            storageTypes.merge("Shulker Boxes", 1, Integer::sum);
-                        }
-                        // Storage Drawers mod
-                        else if (blockName.contains("drawer")) {
-                            containers.add(pos);
-                            storageTypes.merge("Drawers", 1, Integer::sum);
-                        }
-                        // Iron Chests / variants
-                        else if (blockName.contains("iron_chest") || blockName.contains("gold_chest") ||
-                                 blockName.contains("diamond_chest") || blockName.contains("obsidian_chest")) {
-                            containers.add(pos);
-                            storageTypes.merge("Metal Chests", 1, Integer::sum);
-                        }
-                        // Crates
-                        else if (blockName.contains("crate")) {
-                            containers.add(pos);
-                            storageTypes.merge("Crates", 1, Integer::sum);
-                        }
-                        // Sophisticated Storage
-                        else if (blockName.contains("sophisticated")) {
-                            containers.add(pos);
-                            storageTypes.merge("Sophisticated Storage", 1, Integer::sum);
-                        }
-                        // Generic fallback for any other container
-                        else if (((Container) be).getContainerSize() > 0) {
-                            containers.add(pos);
-                            storageTypes.merge("Other Storage", 1, Integer::sum);
-                        }
-                    }
+    private void countContents(BlockPos pos) {
+        BlockEntity be = companion.level().getBlockEntity(pos);
+        if (be instanceof Container container) {
+            for (int i = 0; i < container.getContainerSize(); i++) {
+                ItemStack stack = container.getItem(i);
+                if (!stack.isEmpty()) {
+                    String name = stack.getItem().toString();
+                    baseResources.merge(name, stack.getCount(), Integer::sum);
                 }
             }
         }
+    }
 
-        // Report what storage was found
+    /**
+     * Kind of storage at a position, or null if it isn't usable storage.
+     */
+    private String classifyStorage(BlockPos pos) {
+        // Skip blocks outside loaded chunks
+        if (!ChunkLoadingManager.isBlockInLoadedChunks(companion, pos)) {
+            return null;
+        }
+
+        BlockEntity be = companion.level().getBlockEntity(pos);
+        if (!(be instanceof Container)) {
+            return null;
+        }
+        String blockName = companion.level().getBlockState(pos).getBlock().getName().getString().toLowerCase();
+
+        // Vanilla storage
+        if (be instanceof ChestBlockEntity) {
+            return "Chests";
+        } else if (be instanceof BarrelBlockEntity) {
+            return "Barrels";
+        }
+        // Shulker boxes
+        else if (blockName.contains("shulker")) {
+            return "Shulker Boxes";
+        }
+        // Storage Drawers mod
+        else if (blockName.contains("drawer")) {
+            return "Drawers";
+        }
+        // Iron Chests / variants
+        else if (blockName.contains("iron_chest") || blockName.contains("gold_chest") ||
+                 blockName.contains("diamond_chest") || blockName.contains("obsidian_chest")) {
+            return "Metal Chests";
+        }
+        // Crates
+        else if (blockName.contains("crate")) {
+            return "Crates";
+        }
+        // Sophisticated Storage
+        else if (blockName.contains("sophisticated")) {
+            return "Sophisticated Storage";
+        }
+        // Generic fallback for any other container
+        else if (((Container) be).getContainerSize() > 0) {
+            return "Other Storage";
+        }
+        return null;
+    }
+
+    private void reportStorageTypes(Map<String, Integer> storageTypes) {
         if (!storageTypes.isEmpty()) {
             StringBuilder sb = new StringBuilder("Found storage: ");
             storageTypes.forEach((type, count) -> sb.append(count).append(" ").append(type).append(", "));
@@ -240,8 +268,6 @@ public class AutonomousTask {
             }
             report(report);
         }
-
-        return containers;
     }
 
     private void assessSelf() {
@@ -350,7 +376,7 @@ public class AutonomousTask {
         // Move to ME access point if not close
         double distance = companion.position().distanceTo(Vec3.atCenterOf(meAccessPoint));
         if (distance > 5.0) {
-            companion.getNavigation().moveTo(
+            companion.getNavigationManager().moveTo(
                     meAccessPoint.getX() + 0.5,
                     meAccessPoint.getY(),
                     meAccessPoint.getZ() + 0.5,
@@ -397,7 +423,7 @@ public class AutonomousTask {
         // Move to ME access point if not close
         double distance = companion.position().distanceTo(Vec3.atCenterOf(meAccessPoint));
         if (distance > 5.0) {
-            companion.getNavigation().moveTo(
+            companion.getNavigationManager().moveTo(
                     meAccessPoint.getX() + 0.5,
                     meAccessPoint.getY(),
                     meAccessPoint.getZ() + 0.5,
@@ -556,8 +582,8 @@ public class AutonomousTask {
             }
         } else {
             // Chase - recalculate path periodically
-            if (ticksInState % 20 == 0 || companion.getNavigation().isDone()) {
-                companion.getNavigation().moveTo(huntTarget, 1.2);
+            if (ticksInState % (20 * companion.getAiDetail().slowdown()) == 0 || companion.getNavigation().isDone()) {
+                companion.getNavigationManager().moveTo(huntTarget, 1.2);
             }
         }
 
@@ -572,63 +598,20 @@ public class AutonomousTask {
         AABB searchBox = companion.getBoundingBox().inflate(baseRadius);
 
         // Search for all living entities, then filter and score them
-        List<LivingEntity> candidates = companion.level().getEntitiesOfClass(LivingEntity.class, searchBox,
+        List<LivingEntity> candidates = EntitySnapshot.of(companion.level()).query(LivingEntity.class, searchBox,
                 entity -> {
                     if (!entity.isAlive()) return false;
                     if (entity == companion) return false;
                     if (entity == companion.getOwner()) return false;
 
-                    // Get entity info for filtering
-                    String entityId = BuiltInRegistries.ENTITY_TYPE.getKey(entity.getType()).toString().toLowerCase();
-                    String className = entity.getClass().getName().toLowerCase();
+                    // Pokemon, players, villagers, mounts, golems... are never food
+                    if (!EntityCategories.has(entity, EntityCategories.FOOD)) return false;
 
-                    // === ALWAYS EXCLUDE ===
+                    // Pets that have been tamed
+                    if (entity instanceof TamableAnimal tamable && tamable.isTame()) return false;
 
-                    // Cobblemon Pokemon - never hunt
-                    if (className.contains("cobblemon") || className.contains("pokemon") ||
-                        entityId.contains("cobblemon")) {
-                        return false;
-                    }
-
-                    // Players and villagers
-                    if (entity instanceof net.minecraft.world.entity.player.Player) return false;
-                    if (entityId.contains("villager") || entityId.contains("wandering_trader")) return false;
-
-                    // Pets and tameable animals that might be tamed
-                    if (entity instanceof Wolf wolf && wolf.isTame()) return false;
-                    if (entity instanceof Cat cat && cat.isTame()) return false;
-                    if (entity instanceof Parrot) return false;  // Parrots are always pets
-                    if (entity instanceof Fox) return false;  // Foxes are cute, don't hunt
-
-                    // Horses/mounts - don't hunt mounts
-                    if (entity instanceof AbstractHorse) return false;
-                    if (entityId.contains("horse") || entityId.contains("donkey") ||
-                        entityId.contains("mule") || entityId.contains("llama")) return false;
-
-                    // Alex's Mobs pets/mounts
-                    if (entityId.contains("elephant") || entityId.contains("gorilla") ||
-                        entityId.contains("capuchin") || entityId.contains("crow") ||
-                        entityId.contains("roadrunner")) return false;
-
-                    // Bees - important for farms
-                    if (entity instanceof Bee) return false;
-
-                    // Iron golems and snow golems
-                    if (entityId.contains("golem")) return false;
-
-                    // Axolotls and dolphins - cute/friendly
-                    if (entityId.contains("axolotl") || entityId.contains("dolphin")) return false;
-
-                    // Allays
-                    if (entityId.contains("allay")) return false;
-
-                    // === CHECK IF FARM ANIMAL ===
-                    if (isFarmAnimal(entity)) {
-                        return false;
-                    }
-
-                    // === CHECK IF HUNTABLE ===
-                    return isHuntableForFood(entity, entityId, className);
+                    // Named, leashed or penned animals belong to someone
+                    return !isFarmAnimal(entity);
                 }
         );
 
@@ -639,15 +622,15 @@ public class AutonomousTask {
 
         // Score and sort candidates - prefer high-value targets that are close
         candidates.sort((a, b) -> {
-            double scoreA = getHuntScore(a) / (1 + companion.distanceTo(a) * 0.1);
-            double scoreB = getHuntScore(b) / (1 + companion.distanceTo(b) * 0.1);
+            double scoreA = EntityCategories.getHuntValue(a) / (1 + companion.distanceTo(a) * 0.1);
+            double scoreB = EntityCategories.getHuntValue(b) / (1 + companion.distanceTo(b) * 0.1);
             return Double.compare(scoreB, scoreA);  // Higher score first
         });
 
         LivingEntity chosen = candidates.get(0);
         String chosenId = BuiltInRegistries.ENTITY_TYPE.getKey(chosen.getType()).getPath();
         LLMoblings.LOGGER.info("[{}] Hunting target selected: {} (score: {}, distance: {})",
-                companion.getCompanionName(), chosenId, getHuntScore(chosen), (int) companion.distanceTo(chosen));
+                companion.getCompanionName(), chosenId, EntityCategories.getHuntValue(chosen), (int) companion.distanceTo(chosen));
 
         return chosen;
     }
@@ -670,7 +653,7 @@ public class AutonomousTask {
         }
 
         // Check if animal is in a fenced/enclosed area
-        if (isInEnclosure(entity)) {
+        if (EnclosureMap.isPenned(companion.level(), entity.blockPosition())) {
             LLMoblings.LOGGER.debug("Skipping {} - appears to be in an enclosure", entity.getType().getDescriptionId());
             return true;
         }
@@ -678,171 +661,6 @@ public class AutonomousTask {
         return false;
     }
 
-    /**
-     * Check if an entity is inside a fenced enclosure or near farm structures.
-     */
-    private boolean isInEnclosure(LivingEntity entity) {
-        BlockPos pos = entity.blockPosition();
-        int fenceCount = 0;
-        int farmBlockCount = 0;
-
-        // Check surrounding blocks in a 5 block radius
-        for (int x = -5; x <= 5; x++) {
-            for (int z = -5; z <= 5; z++) {
-                for (int y = -1; y <= 2; y++) {
-                    BlockPos checkPos = pos.offset(x, y, z);
-
-                    // Skip blocks outside loaded chunks
-                    if (!ChunkLoadingManager.isBlockInLoadedChunks(companion, checkPos)) {
-                        continue;
-                    }
-
-                    String blockName = companion.level().getBlockState(checkPos).getBlock().getName().getString().toLowerCase();
-
-                    // Count fences and walls
-                    if (blockName.contains("fence") || blockName.contains("wall") ||
-                        blockName.contains("gate")) {
-                        fenceCount++;
-                    }
-
-                    // Count farm-related blocks
-                    if (blockName.contains("hay") || blockName.contains("trough") ||
-                        blockName.contains("feeder") || blockName.contains("barn") ||
-                        blockName.contains("stable") || blockName.contains("coop") ||
-                        blockName.contains("pen")) {
-                        farmBlockCount++;
-                    }
-                }
-            }
-        }
-
-        // If surrounded by fences (at least 8 fence blocks nearby) or near farm structures
-        if (fenceCount >= 8) {
-            return true;
-        }
-
-        // If near farm-related blocks
-        if (farmBlockCount >= 2) {
-            return true;
-        }
-
-        // Additional check: is the animal on a non-natural block? (cobblestone, planks, etc.)
-        BlockPos below = pos.below();
-        String groundBlock = companion.level().getBlockState(below).getBlock().getName().getString().toLowerCase();
-        if (groundBlock.contains("plank") || groundBlock.contains("cobblestone") ||
-            groundBlock.contains("stone_brick") || groundBlock.contains("hay")) {
-            // Standing on player-made flooring - likely a farm
-            return true;
-        }
-
-        return false;
-    }
-
-    /**
-     * Check if an entity can be hunted for food.
-     */
-    private boolean isHuntableForFood(LivingEntity entity, String entityId, String className) {
-        // === VANILLA FOOD ANIMALS ===
-        if (entity instanceof Cow) return true;      // Beef + leather
-        if (entity instanceof Pig) return true;      // Porkchop
-        if (entity instanceof Sheep) return true;    // Mutton + wool
-        if (entity instanceof Chicken) return true;  // Chicken + feathers
-        if (entity instanceof Rabbit) return true;   // Rabbit meat
-
-        // Fish (use entity ID since fish classes may vary)
-        if (entityId.contains("cod") || entityId.contains("salmon") ||
-            entityId.contains("tropical_fish") || entityId.contains("pufferfish")) return true;
-
-        // Squid
-        if (entityId.contains("squid") || entityId.contains("glow_squid")) return true;
-
-        // Turtle
-        if (entityId.contains("turtle")) return true;
-
-        // Mooshrooms - special cows
-        if (entityId.contains("mooshroom")) return true;
-
-        // Goats can be hunted but usually for horns
-        if (entityId.contains("goat")) return true;
-
-        // === MODDED ANIMALS - Alex's Mobs ===
-        // High value meat animals
-        if (entityId.contains("bison")) return true;
-        if (entityId.contains("moose")) return true;
-        if (entityId.contains("gazelle")) return true;
-        if (entityId.contains("kangaroo")) return true;
-        if (entityId.contains("capybara")) return true;
-        if (entityId.contains("mungus")) return true;
-        if (entityId.contains("catfish")) return true;
-        if (entityId.contains("flying_fish")) return true;
-        if (entityId.contains("giant_squid")) return true;
-        if (entityId.contains("hammerhead_shark")) return true;
-        if (entityId.contains("lobster")) return true;
-        if (entityId.contains("orca")) return true;
-
-        // Alex's Caves huntable
-        if (entityId.contains("tremorsaurus")) return true;
-        if (entityId.contains("grottoceratops")) return true;
-        if (entityId.contains("vallumraptor")) return true;
-
-        // === FARMER'S DELIGHT ===
-        if (entityId.contains("farmersdelight")) return true;  // Any FD animals
-
-        // === OTHER MODDED ===
-        // Ice and Fire dragons are too dangerous, but some animals
-        if (entityId.contains("iceandfire") &&
-            (entityId.contains("hippogryph_egg") || entityId.contains("amphithere"))) {
-            return false;  // Don't hunt these
-        }
-
-        // Generic check - if it's in the Animal class and not explicitly excluded
-        if (entity instanceof Animal) {
-            // Additional exclusions for modded
-            if (entityId.contains("familiar") || entityId.contains("pet") ||
-                entityId.contains("tamed") || entityId.contains("companion")) {
-                return false;
-            }
-            return true;
-        }
-
-        return false;
-    }
-
-    /**
-     * Score a hunt target - higher means more valuable.
-     */
-    private int getHuntScore(LivingEntity entity) {
-        String entityId = BuiltInRegistries.ENTITY_TYPE.getKey(entity.getType()).toString().toLowerCase();
-
-        // High value - lots of food
-        if (entity instanceof Cow) return 100;
-        if (entityId.contains("mooshroom")) return 100;
-        if (entityId.contains("bison") || entityId.contains("moose")) return 100;
-
-        // Medium-high value
-        if (entity instanceof Pig) return 80;
-        if (entity instanceof Sheep) return 70;
-        if (entityId.contains("gazelle") || entityId.contains("kangaroo")) return 75;
-
-        // Medium value
-        if (entity instanceof Chicken) return 50;
-        if (entity instanceof Rabbit) return 40;
-        if (entityId.contains("capybara")) return 60;
-
-        // Fish - easy but low value
-        if (entityId.contains("cod") || entityId.contains("salmon")) return 30;
-        if (entityId.contains("tropical_fish")) return 20;
-
-        // Low value or risky
-        if (entityId.contains("goat")) return 25;  // Can ram you
-        if (entityId.contains("pufferfish")) return 10;  // Poisonous
-
-        // Default for other animals
-        if (entity instanceof Animal) return 35;
-
-        return 20;
-    }
-
     private void tickGathering() {
         // Delegate to mining task if needed
         // For now, transition back to assessing
@@ -898,7 +716,7 @@ public class AutonomousTask {
         double distance = companion.position().distanceTo(Vec3.atCenterOf(targetStorage));
 
         if (distance > 3.0) {
-            companion.getNavigation().moveTo(
+            companion.getNavigationManager().moveTo(
                     targetStorage.getX() + 0.5,
                     targetStorage.getY(),
                     targetStorage.getZ() + 0.5,
@@ -1005,8 +823,8 @@ public class AutonomousTask {
 
         if (distance > 3.0) {
             // Navigate to ME point
-            if (ticksInState % 20 == 0 || companion.getNavigation().isDone()) {
-                companion.getNavigation().moveTo(
+            if (ticksInState % (20 * companion.getAiDetail().slowdown()) == 0 || companion.getNavigation().isDone()) {
+                companion.getNavigationManager().moveTo(
                         meAccessPoint.getX() + 0.5,
                         meAccessPoint.getY(),
                         meAccessPoint.getZ() + 0.5,
@@ -1097,7 +915,7 @@ public class AutonomousTask {
 
         // Navigate to exploration target
         if (exploreTarget != null && companion.getNavigation().isDone()) {
-            companion.getNavigation().moveTo(
+            companion.getNavigationManager().moveTo(
                     exploreTarget.getX() + 0.5,
                     exploreTarget.getY(),
                     exploreTarget.getZ() + 0.5,
@@ -1172,10 +990,7 @@ public class AutonomousTask {
             for (int dx = -3; dx <= 3; dx++) {
                 for (int dz = -3; dz <= 3; dz++) {
                     BlockPos nearby = finalCandidate.offset(dx, 0, dz);
-                    String blockName = companion.level().getBlockState(nearby).getBlock().getName().getString().toLowerCase();
-                    if (blockName.contains("door") || blockName.contains("chest") ||
-                        blockName.contains("furnace") || blockName.contains("crafting") ||
-                        blockName.contains("enchant") || blockName.contains("anvil")) {
+                    if (BlockCategories.has(companion.level().getBlockState(nearby), BlockCategories.INTERESTING)) {
                         score += 10;
                     }
                 }
@@ -1203,11 +1018,11 @@ public class AutonomousTask {
 
         // Check for threats
         AABB patrolBox = companion.getBoundingBox().inflate(baseRadius);
-        List<Monster> threats = companion.level().getEntitiesOfClass(Monster.class, patrolBox,
-                Monster::isAlive);
+        List<LivingEntity> threats = EntitySnapshot.of(companion.level()).query(LivingEntity.class, patrolBox,
+                e -> e.isAlive() && EntityCategories.has(e, EntityCategories.HOSTILE));
 
         if (!threats.isEmpty()) {
-            Monster nearest = threats.stream()
+            LivingEntity nearest = threats.stream()
                     .min(Comparator.comparingDouble(m -> companion.distanceTo(m)))
                     .orElse(null);
 
@@ -1218,7 +1033,7 @@ public class AutonomousTask {
                     companion.doHurtTarget(nearest);
                     companion.swing(companion.getUsedItemHand());
                 } else {
-                    companion.getNavigation().moveTo(nearest, 1.2);
+                    companion.getNavigationManager().moveTo(nearest, 1.2);
                 }
 
                 if (!nearest.isAlive() && reportCooldown <= 0) {
@@ -1230,7 +1045,7 @@ public class AutonomousTask {
         }
 
         // Wander around home (within loaded chunks)
-        if (companion.getNavigation().isDone() && ticksInState % 100 == 0) {
+        if (companion.getSchedule().isDue(WorkScheduler.Job.WANDER) && companion.getNavigation().isDone()) {
             BlockPos wanderTarget = null;
             for (int i = 0; i < 5; i++) {  // Try up to 5 times to find a valid target
                 BlockPos candidate = homePos.offset(
@@ -1244,7 +1059,7 @@ public class AutonomousTask {
                 }
             }
             if (wanderTarget != null) {
-                companion.getNavigation().moveTo(wanderTarget.getX(), wanderTarget.getY(), wanderTarget.getZ(), 0.8);
+                companion.getNavigationManager().moveTo(wanderTarget.getX(), wanderTarget.getY(), wanderTarget.getZ(), 0.8);
             }
         }
 
@@ -1260,13 +1075,13 @@ public class AutonomousTask {
         }
 
         // Stay alert for threats even while resting!
-        if (ticksInState % 40 == 0) {
+        if (companion.getSchedule().isDue(WorkScheduler.Job.THREAT_SCAN)) {
             AABB searchBox = companion.getBoundingBox().inflate(baseRadius / 2);
-            List<Monster> nearbyThreats = companion.level().getEntitiesOfClass(Monster.class, searchBox,
-                    Monster::isAlive);
+            List<LivingEntity> nearbyThreats = EntitySnapshot.of(companion.level()).query(LivingEntity.class, searchBox,
+                    e -> e.isAlive() && EntityCategories.has(e, EntityCategories.HOSTILE));
 
             if (!nearbyThreats.isEmpty()) {
-                Monster nearest = nearbyThreats.stream()
+                LivingEntity nearest = nearbyThreats.stream()
                         .min(Comparator.comparingDouble(m -> companion.distanceTo(m)))
                         .orElse(null);
 
@@ -1281,7 +1096,7 @@ public class AutonomousTask {
         // Stay near home
         double distFromHome = companion.position().distanceTo(Vec3.atCenterOf(homePos));
         if (distFromHome > baseRadius) {
-            companion.getNavigation().moveTo(homePos.getX(), homePos.getY(), homePos.getZ(), 0.8);
+            companion.getNavigationManager().moveTo(homePos.getX(), homePos.getY(), homePos.getZ(), 0.8);
         }
 
         // Look around occasionally while resting
@@ -1309,10 +1124,15 @@ public class AutonomousTask {
         LLMoblings.LOGGER.info("[{}] Autonomous state: {} -> {}", companion.getCompanionName(), currentState, newState);
         currentState = newState;
         ticksInState = 0;
+        assessmentStarted = false;
+        companion.getSchedule().cancel(WorkScheduler.Job.ASSESSMENT);
     }
 
     private void report(String message) {
         LLMoblings.LOGGER.info("[{}] {}", companion.getCompanionName(), message);
+        if (companion.getAIController() != null) {
+            companion.getAIController().remember(message);
+        }
         if (companion.getOwner() != null) {
             companion.getOwner().sendSystemMessage(
                     net.minecraft.network.chat.Component.literal("[" + companion.getCompanionName() + "] " + message)
@@ -1325,6 +1145,12 @@ public class AutonomousTask {
     }
 
     public String getStatusReport() {
+        ScanJob<?> scan = assessmentScans.peek();
+        if (currentState == AutonomousState.ASSESSING && scan != null) {
+            return String.format("Mode: Autonomous (ASSESSING, scanning %s %d%%) | Food: %d | Armed: %s | Armored: %s",
+                    scan.getName(), Math.round(scan.getProgress() * 100), foodCount,
+                    hasWeapon ? "Yes" : "No", hasArmor ? "Yes" : "No");
+        }
         return String.format("Mode: Autonomous (%s) | Food: %d | Armed: %s | Armored: %s",
                 currentState, foodCount, hasWeapon ? "Yes" : "No", hasArmor ? "Yes" : "No");
     }
@@ -1,8 +1,11 @@
 package com.gblfxt.llmoblings.ai;
 
+import com.gblfxt.llmoblings.BlockCategories;
+import com.gblfxt.llmoblings.EntitySnapshot;
 import com.gblfxt.llmoblings.LLMoblings;
 import com.gblfxt.llmoblings.compat.AE2Integration;
 import com.gblfxt.llmoblings.entity.CompanionEntity;
+import com.gblfxt.llmoblings.entity.IndexedInventory;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.core.registries.BuiltInRegistries;
@@ -137,7 +140,7 @@ public class BuildingTask {
         double distance = companion.position().distanceTo(Vec3.atCenterOf(buildOrigin));
         if (distance > 32) {
             // Need to navigate to build site first
-            companion.getNavigation().moveTo(
+            companion.getNavigationManager().moveTo(
                 buildOrigin.getX() + 0.5,
                 buildOrigin.getY(),
                 buildOrigin.getZ() + 0.5,
@@ -376,7 +379,7 @@ public class BuildingTask {
 
         if (dist > 3) {
             if (companion.getNavigation().isDone()) {
-                companion.getNavigation().moveTo(
+                companion.getNavigationManager().moveTo(
                     gatherNavigationTarget.getX() + 0.5,
                     gatherNavigationTarget.getY(),
                     gatherNavigationTarget.getZ() + 0.5,
@@ -531,21 +534,7 @@ public class BuildingTask {
     }
 
     private boolean shouldClear(BlockState state) {
-        if (state.isAir()) return false;
-
-        String blockName = BuiltInRegistries.BLOCK.getKey(state.getBlock()).getPath();
-        return blockName.contains("grass") ||
-               blockName.contains("flower") ||
-               blockName.contains("sapling") ||
-               blockName.contains("leaves") ||
-               blockName.contains("fern") ||
-               blockName.contains("tallgrass") ||
-               blockName.contains("tall_grass") ||
-               blockName.contains("vine") ||
-               blockName.contains("mushroom") ||
-               blockName.contains("dead_bush") ||
-               blockName.contains("seagrass") ||
-               blockName.contains("kelp");
+        return !state.isAir() && BlockCategories.has(state, BlockCategories.CLEARABLE);
     }
 
     private void loadPhase() {
@@ -588,7 +577,7 @@ public class BuildingTask {
         // Navigate close to placement
         double dist = companion.position().distanceTo(Vec3.atCenterOf(worldPos));
         if (dist > 5) {
-            companion.getNavigation().moveTo(
+            companion.getNavigationManager().moveTo(
                 worldPos.getX() + 0.5,
                 worldPos.getY(),
                 worldPos.getZ() + 0.5,
@@ -645,96 +634,54 @@ public class BuildingTask {
     }
 
     private boolean canBreakForBuilding(BlockState state) {
-        String name = BuiltInRegistries.BLOCK.getKey(state.getBlock()).getPath();
-        return name.contains("grass") || name.contains("flower") ||
-               name.contains("fern") || name.contains("vine") ||
-               name.contains("mushroom") || name.contains("sapling");
+        return BlockCategories.has(state, BlockCategories.BUILD_REPLACEABLE);
     }
 
     private boolean consumeMaterial(Item item) {
+        IndexedInventory inventory = companion.getIndexedInventory();
+
         // First try exact match
-        for (int i = 0; i < companion.getContainerSize(); i++) {
-            ItemStack stack = companion.getItem(i);
-            if (stack.getItem() == item) {
-                stack.shrink(1);
-                if (stack.isEmpty()) {
-                    companion.setItem(i, ItemStack.EMPTY);
-                }
-                return true;
-            }
+        if (inventory.remove(item, 1) > 0) {
+            return true;
         }
 
         // Try equivalent items
         String requiredName = BuiltInRegistries.ITEM.getKey(item).getPath();
-        for (int i = 0; i < companion.getContainerSize(); i++) {
-            ItemStack stack = companion.getItem(i);
-            if (stack.isEmpty()) continue;
-
-            String stackName = BuiltInRegistries.ITEM.getKey(stack.getItem()).getPath();
-            boolean isEquivalent = false;
+        int slot = inventory.firstSlot(candidate -> {
+            String stackName = BuiltInRegistries.ITEM.getKey(candidate).getPath();
 
             // Cobblestone variants
-            if (requiredName.equals("cobblestone") &&
-                (stackName.contains("cobblestone") || stackName.equals("blackstone"))) {
-                isEquivalent = true;
+            if (requiredName.equals("cobblestone")) {
+                return stackName.contains("cobblestone") || stackName.equals("blackstone");
             }
             // Planks variants
-            else if (requiredName.contains("planks") && stackName.contains("planks")) {
-                isEquivalent = true;
+            if (requiredName.contains("planks")) {
+                return stackName.contains("planks");
             }
             // Log variants
-            else if (requiredName.contains("log") && stackName.contains("log") && !stackName.contains("stripped")) {
-                isEquivalent = true;
-            }
+            return requiredName.contains("log") && stackName.contains("log") && !stackName.contains("stripped");
+        });
 
-            if (isEquivalent) {
-                stack.shrink(1);
-                if (stack.isEmpty()) {
-                    companion.setItem(i, ItemStack.EMPTY);
-                }
-                LLMoblings.LOGGER.debug("[Building] Used {} as substitute for {}",
-                    stackName, requiredName);
-                return true;
-            }
+        if (slot >= 0) {
+            Item substitute = companion.getItem(slot).getItem();
+            inventory.remove(substitute, 1);
+            LLMoblings.LOGGER.debug("[Building] Used {} as substitute for {}",
+                BuiltInRegistries.ITEM.getKey(substitute).getPath(), requiredName);
+            return true;
         }
         return false;
     }
 
     private Map<Item, Integer> countInventoryItems() {
-        Map<Item, Integer> counts = new HashMap<>();
-        for (int i = 0; i < companion.getContainerSize(); i++) {
-            ItemStack stack = companion.getItem(i);
-            if (!stack.isEmpty()) {
-                counts.merge(stack.getItem(), stack.getCount(), Integer::sum);
-            }
-        }
-        return counts;
+        return companion.getIndexedInventory().counts();
     }
 
     private int countItem(Item item) {
-        int count = 0;
-        for (int i = 0; i < companion.getContainerSize(); i++) {
-            ItemStack stack = companion.getItem(i);
-            if (stack.getItem() == item) {
-                count += stack.getCount();
-            }
-        }
-        return count;
+        return companion.getIndexedInventory().count(item);
     }
 
     private void removeItem(Item item, int count) {
-        int remaining = count;
-        for (int i = 0; i < companion.getContainerSize() && remaining > 0; i++) {
-            ItemStack stack = companion.getItem(i);
-            if (stack.getItem() == item) {
-                int take = Math.min(stack.getCount(), remaining);
-                stack.shrink(take);
-                remaining -= take;
-                if (stack.isEmpty()) {
-                    companion.setItem(i, ItemStack.EMPTY);
-                }
-            }
-        }
+        companion.getIndexedInventory().remove(item, count);
     }
 
     private void addItem(Item item, int count) {
@@ -743,7 +690,7 @@ public class BuildingTask {
 
     private void pickupNearbyItems() {
         AABB pickupBox = companion.getBoundingBox().inflate(3.0);
-        List<ItemEntity> items = companion.level().getEntitiesOfClass(ItemEntity.class, pickupBox);
+        List<ItemEntity> items = EntitySnapshot.of(companion.level()).query(ItemEntity.class, pickupBox);
 
         for (ItemEntity itemEntity : items) {
             if (itemEntity.isAlive() && !itemEntity.hasPickUpDelay()) {
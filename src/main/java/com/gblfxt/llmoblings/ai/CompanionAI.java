@@ -1,13 +1,21 @@
 package com.gblfxt.llmoblings.ai;
 
 import com.gblfxt.llmoblings.Config;
+import com.gblfxt.llmoblings.BlockEntitySearch;
+import com.gblfxt.llmoblings.EntityCategories;
+import com.gblfxt.llmoblings.EntitySnapshot;
 import com.gblfxt.llmoblings.LLMoblings;
+import com.gblfxt.llmoblings.PointOfInterestIndex;
+import com.gblfxt.llmoblings.RegistryNameIndex;
+import com.gblfxt.llmoblings.WorkScheduler;
 import com.gblfxt.llmoblings.ai.blueprints.CottageBlueprint;
 import com.gblfxt.llmoblings.compat.AE2Integration;
 import com.gblfxt.llmoblings.compat.BuildingGadgetsIntegration;
 import com.gblfxt.llmoblings.compat.CobblemonIntegration;
 import com.gblfxt.llmoblings.compat.SophisticatedBackpacksIntegration;
+import com.gblfxt.llmoblings.data.CompanionMemoryData;
 import com.gblfxt.llmoblings.entity.CompanionEntity;
+import com.gblfxt.llmoblings.entity.EquipmentOptimizer;
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
 import net.minecraft.core.registries.BuiltInRegistries;
@@ -32,6 +40,8 @@ import net.minecraft.world.entity.EquipmentSlot;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
@@ -48,6 +58,8 @@ public class CompanionAI {
     private AIState currentState = AIState.IDLE;
     private CompletableFuture<CompanionAction> pendingAction = null;
     private CompletableFuture<Void> pendingLoopFuture = null;
+    // Message being answered; only remembered once the reply is in, so it can't be recalled into its own prompt
+    private String pendingMemory = null;
 
     // Task-specific data
     private BlockPos targetPos = null;
@@ -63,6 +75,9 @@ public class CompanionAI {
     // Owner tracking for greetings
     private boolean ownerWasNearby = false;
 
+    // Ticks since personality and the Pokemon buddy last ran (every tick unless nobody is near)
+    private int ticksSinceCosmetic = 0;
+
     // Home position tracking
     private BlockPos homePos = null;
     private BlockPos bedPos = null;
@@ -70,6 +85,13 @@ public class CompanionAI {
     // Track who gave the last command (for follow, etc.)
     private Player commandGiver = null;
 
+    // Long-term episodic memory (resolved lazily once owner and name are known)
+    private CompanionMemory memory = null;
+
+    // Speculative movement started while the LLM is thinking; holds the actions that confirm it
+    private Set<String> speculativeActions = null;
+    private static final Set<String> QUERY_ACTIONS = Set.of("status", "scan", "inventory", "inv", "items", "cobblestats");
+
     public CompanionAI(CompanionEntity companion) {
         this.companion = companion;
         this.ollamaClient = new OllamaClient(companion.getCompanionName());
@@ -77,11 +99,13 @@ public class CompanionAI {
     }
 
     public void tick() {
-        // Tick personality for random chatter/emotes
-        personality.tick();
-
-        // Tick Pokemon buddy to follow companion
-        tickPokemonBuddy();
+        // Chatter, emotes and the Pokemon buddy only run every few ticks while nobody is near
+        AiDetail detail = companion.getAiDetail();
+        if (++ticksSinceCosmetic >= detail.slowdown()) {
+            personality.tick(ticksSinceCosmetic);
+            tickPokemonBuddy();
+            ticksSinceCosmetic = 0;
+        }
 
         // Check if owner just came nearby (for greetings)
         checkOwnerProximity();
@@ -94,6 +118,7 @@ public class CompanionAI {
                 LLMoblings.LOGGER.error("Error in action loop: ", e);
             }
             pendingLoopFuture = null;
+            rememberPending();
         }
 
         // Check for pending single-shot LLM response (non-loop mode)
@@ -105,6 +130,23 @@ public class CompanionAI {
                 LLMoblings.LOGGER.error("Error getting LLM response: ", e);
             }
             pendingAction = null;
+            rememberPending();
+        }
+
+        // LLM finished without choosing a movement action - undo any speculative pathing
+        if (speculativeActions != null && pendingAction == null && pendingLoopFuture == null) {
+            resolveSpeculation("idle");
+        }
+
+        // Mining was abandoned for another state; let go of its index and scans
+        if (miningTask != null && currentState != AIState.MINING) {
+            cancelMining();
+        }
+
+        // Far from every player, long jobs advance in coarser steps
+        if (detail == AiDetail.SIMULATED && isOnLongJob()
+                && !companion.getSchedule().isDue(WorkScheduler.Job.SIMULATION_STEP, Config.AI_SIMULATION_INTERVAL.get())) {
+            return;
         }
 
         // Execute current state behavior
@@ -136,20 +178,103 @@ public class CompanionAI {
 
         LLMoblings.LOGGER.info("[{}] Processing message from {}: {}", companion.getCompanionName(),
                 sender != null ? sender.getName().getString() : "unknown", message);
+        ollamaClient.setMemory(getMemory());
+        pendingMemory = (sender != null ? sender.getName().getString() : "Someone") + " told me: \"" + message + "\"";
+
+        // Admission control: over-budget requests are handled by the keyword parser instead of the LLM
+        UUID requesterId = sender != null ? sender.getUUID() : companion.getOwnerUUID();
+        TokenBudget.Reservation reservation =
+                TokenBudget.tryAdmit(requesterId, ollamaClient.estimateRequestTokens(message));
+        if (reservation == null) {
+            TokenBudget.recordDenied(requesterId);
+            LLMoblings.LOGGER.info("[{}] LLM token budget exceeded, using keyword fallback", companion.getCompanionName());
+            sendMessageTo(sender, "My head's spinning from all this thinking - keeping it simple for a bit.");
+            rememberPending();
+            executeAction(ollamaClient.keywordFallback(message));
+            return;
+        }
+        OllamaClient.RequestContext context =
+                new OllamaClient.RequestContext(requesterId, getUsageKey(), buildCacheSignature());
+
         sendMessageToAll("Thinking...");
 
         if (Config.ACTION_LOOP_ENABLED.get()) {
-            processMessageWithLoop(message, sender);
+            processMessageWithLoop(message, context, reservation);
         } else {
-            pendingAction = ollamaClient.chat(message);
+            pendingAction = ollamaClient.chat(message, context, reservation);
         }
+
+        // Start moving now if the message clearly implies where we're going
+        startSpeculativeMove(message, sender);
+    }
+
+    // ========== SPECULATIVE NAVIGATION ==========
+
+    /**
+     * For messages that strongly hint at a destination, start pathing there while the LLM
+     * is still thinking. Only plain navigation is started (no state change), so it's cheap to
+     * undo. Confirmed or rolled back in {@link #resolveSpeculation} once the real action arrives.
+     */
+    private void startSpeculativeMove(String message, Player sender) {
+        if (currentState != AIState.IDLE) {
+            return;  // Don't disturb an ongoing task on a guess
+        }
+
+        String lower = message.toLowerCase();
+        BlockPos target = null;
+        Set<String> expected = null;
+
+        if (sender != null && sender.level() == companion.level() &&
+                (lower.contains("come here") || lower.contains("come to me") || lower.contains("over here") ||
+                 lower.contains("follow me") || lower.contains("come with me"))) {
+            target = sender.blockPosition();
+            expected = Set.of("come", "follow", "goto");
+        } else if (lower.contains("home") && !lower.contains("sethome") && !lower.contains("set home")
+                && (homePos != null || bedPos != null)) {
+            target = homePos != null ? homePos : bedPos;
+            expected = Set.of("home", "goto");
+        } else if (lower.contains("terminal") || lower.contains("me system") || lower.contains("me network")) {
+            List<BlockPos> accessPoints = AE2Integration.findMEAccessPoints(companion.level(), companion.blockPosition(), 32);
+            if (!accessPoints.isEmpty()) {
+                target = accessPoints.get(0);
+                expected = Set.of("getgear", "deposit", "goto");
+            }
+        }
+
+        if (target == null) {
+            return;
+        }
+
+        companion.getNavigationManager().moveTo(target.getX() + 0.5, target.getY(), target.getZ() + 0.5, 1.0);
+        speculativeActions = expected;
+        LLMoblings.LOGGER.debug("[{}] Speculatively moving toward {} while thinking", companion.getCompanionName(), target);
+    }
+
+    /**
+     * Keep speculative movement if the LLM chose a matching action, otherwise stop it.
+     * Query actions don't resolve anything since the loop may still pick a movement action.
+     */
+    private void resolveSpeculation(String actionName) {
+        if (speculativeActions == null || QUERY_ACTIONS.contains(actionName)) {
+            return;
+        }
+
+        if (speculativeActions.contains(actionName)) {
+            LLMoblings.LOGGER.debug("[{}] Speculative move confirmed by '{}'", companion.getCompanionName(), actionName);
+        } else {
+            companion.getNavigation().stop();
+            LLMoblings.LOGGER.debug("[{}] Speculative move rolled back ('{}')", companion.getCompanionName(), actionName);
+        }
+        speculativeActions = null;
     }
 
     /**
      * Process a message using the iterative action loop.
      * Runs async: LLM call -> execute -> if query, feed result back -> repeat.
+     * The first call spends the admitted reservation; each later one has to be admitted again.
      */
-    private void processMessageWithLoop(String message, Player sender) {
+    private void processMessageWithLoop(String message, OllamaClient.RequestContext context,
+                                        TokenBudget.Reservation admitted) {
         int maxIterations = Config.ACTION_LOOP_MAX_ITERATIONS.get();
 
         pendingLoopFuture = CompletableFuture.runAsync(() -> {
@@ -165,8 +290,19 @@ public class CompanionAI {
                     String worldState = executeOnMainThreadAndWait(
                             () -> WorldStateBuilder.buildContext(companion));
 
+                    // Later turns are budgeted like new requests
+                    TokenBudget.Reservation reservation = iteration == 0 ? admitted
+                            : TokenBudget.tryAdmit(context.requester(),
+                                    ollamaClient.estimateRequestTokens(worldState + "\n" + currentMessage));
+                    if (reservation == null) {
+                        TokenBudget.recordDenied(context.requester());
+                        LLMoblings.LOGGER.info("[{}] Loop ended: token budget exceeded", companion.getCompanionName());
+                        break;
+                    }
+
                     // Call LLM (blocking, already on async thread)
-                    CompanionAction action = ollamaClient.chatBlocking(currentMessage, worldState);
+                    CompanionAction action = ollamaClient.chatBlocking(currentMessage, worldState, iteration == 0,
+                            context, reservation);
                     messagesAdded += 2; // user + assistant messages
 
                     // Send the LLM's chat message on the main thread (blocking to preserve order)
@@ -208,6 +344,8 @@ public class CompanionAI {
                 LLMoblings.LOGGER.error("[{}] Action loop error: ", companion.getCompanionName(), e);
                 scheduleMainThread(() -> sendMessage("Sorry, I got confused mid-thought."));
             } finally {
+                admitted.release();  // In case the loop failed before its first call
+
                 // Compact history to avoid consuming the 20-message window
                 if (messagesAdded > 2) {
                     ollamaClient.compactLoopHistory(messagesAdded);
@@ -273,8 +411,21 @@ public class CompanionAI {
         String contextMessage = "[A player named " + stranger.getName().getString() +
                 " (not my owner) says: " + message + ". I should be friendly but I only take commands from my owner.]";
 
+        // Strangers can't issue commands, so there's nothing to downgrade to - just decline
+        TokenBudget.Reservation reservation =
+                TokenBudget.tryAdmit(stranger.getUUID(), ollamaClient.estimateRequestTokens(contextMessage));
+        if (reservation == null) {
+            TokenBudget.recordDenied(stranger.getUUID());
+            sendMessageTo(stranger, "Sorry, I can't chat right now. Maybe later!");
+            return;
+        }
+        OllamaClient.RequestContext context =
+                new OllamaClient.RequestContext(stranger.getUUID(), getUsageKey(), buildCacheSignature());
+
+        ollamaClient.setMemory(getMemory());
+        pendingMemory = stranger.getName().getString() + " (not my owner) said: \"" + message + "\"";
         sendMessageToAll("Hmm?");
-        pendingAction = ollamaClient.chat(contextMessage);
+        pendingAction = ollamaClient.chat(contextMessage, context, reservation);
     }
 
     private void sendMessageTo(Player player, String message) {
@@ -292,6 +443,7 @@ public class CompanionAI {
 
         String actionName = action.getAction().toLowerCase();
         LLMoblings.LOGGER.debug("Executing action: {}", action);
+        resolveSpeculation(actionName);
 
         switch (actionName) {
             // --- Query actions (loop continues) ---
@@ -481,7 +633,7 @@ public class CompanionAI {
 
         if (distance > followDist) {
             // Move towards target
-            companion.getNavigation().moveTo(followTarget, 1.0);
+            companion.getNavigationManager().moveTo(followTarget, 1.0);
         } else if (distance < followDist - 1) {
             // Close enough, stop
             companion.getNavigation().stop();
@@ -525,7 +677,7 @@ public class CompanionAI {
             targetPos = null;
         } else if (companion.getNavigation().isDone()) {
             // Recalculate path
-            companion.getNavigation().moveTo(targetPos.getX(), targetPos.getY(), targetPos.getZ(), 1.0);
+            companion.getNavigationManager().moveTo(targetPos.getX(), targetPos.getY(), targetPos.getZ(), 1.0);
         }
     }
 
@@ -541,6 +693,7 @@ public class CompanionAI {
         // Check for completion
         if (miningTask.isCompleted()) {
             sendMessage("Done! I gathered " + miningTask.getMinedCount() + " " + miningTask.getTargetBlockName() + ".");
+            remember("Mined " + miningTask.getMinedCount() + " " + miningTask.getTargetBlockName() + " near " + formatPos(companion.blockPosition()));
             personality.onTaskComplete();
             miningTask = null;
             currentState = AIState.IDLE;
@@ -550,6 +703,7 @@ public class CompanionAI {
         // Check for failure
         if (miningTask.isFailed()) {
             sendMessage(miningTask.getFailReason());
+            remember("Failed to mine " + miningTask.getTargetBlockName() + " near " + formatPos(companion.blockPosition()) + ": " + miningTask.getFailReason());
             personality.doSadEmote();
             miningTask = null;
             currentState = AIState.IDLE;
@@ -563,8 +717,12 @@ public class CompanionAI {
 
         // Progress report every 5 seconds
         if (companion.tickCount % 100 == 0) {
-            sendMessage("Mining " + miningTask.getTargetBlockName() + "... (" +
-                miningTask.getMinedCount() + "/" + miningTask.getTargetCount() + ")");
+            if (miningTask.isScanning()) {
+                sendMessage("Surveying the area... (" + Math.round(miningTask.getScanProgress() * 100) + "%)");
+            } else {
+                sendMessage("Mining " + miningTask.getTargetBlockName() + "... (" +
+                    miningTask.getMinedCount() + "/" + miningTask.getTargetCount() + ")");
+            }
         }
     }
 
@@ -598,7 +756,7 @@ public class CompanionAI {
             }
         } else {
             // Move towards target aggressively
-            companion.getNavigation().moveTo(targetEntity, 1.4);  // Faster movement in combat
+            companion.getNavigationManager().moveTo(targetEntity, 1.4);  // Faster movement in combat
         }
 
         // Combat chatter every 5 seconds
@@ -618,18 +776,19 @@ public class CompanionAI {
         }
 
         // Look for threats near owner - include any mob targeting the owner or companion
-        List<LivingEntity> threats = companion.level().getEntitiesOfClass(
+        List<LivingEntity> threats = EntitySnapshot.of(companion.level()).query(
                 LivingEntity.class,
                 owner.getBoundingBox().inflate(12),
                 entity -> {
                     if (!entity.isAlive() || entity == companion || entity == owner) {
                         return false;
                     }
-                    if (entity instanceof Player || entity instanceof CompanionEntity) {
+                    int categories = EntityCategories.get(entity);
+                    if ((categories & EntityCategories.NEVER_ATTACK) != 0) {
                         return false;
                     }
                     // Check if it's a monster
-                    if (entity instanceof Monster) {
+                    if ((categories & EntityCategories.HOSTILE) != 0) {
                         return true;
                     }
                     // Check if any mob is targeting owner or companion
@@ -656,7 +815,7 @@ public class CompanionAI {
                         personality.onCombat();
                     }
                 } else {
-                    companion.getNavigation().moveTo(targetEntity, 1.4);
+                    companion.getNavigationManager().moveTo(targetEntity, 1.4);
                 }
             }
         } else {
@@ -685,6 +844,7 @@ public class CompanionAI {
         // Check for completion
         if (buildingTask.isCompleted()) {
             sendMessage("Done! I've finished building the " + buildingTask.getStructureName() + "!");
+            remember("Built a " + buildingTask.getStructureName() + " near " + formatPos(companion.blockPosition()));
             personality.onTaskComplete();
             buildingTask = null;
             currentState = AIState.IDLE;
@@ -694,6 +854,7 @@ public class CompanionAI {
         // Check for failure
         if (buildingTask.isFailed()) {
             sendMessage(buildingTask.getFailReason());
+            remember("Failed to build a " + buildingTask.getStructureName() + " near " + formatPos(companion.blockPosition()) + ": " + buildingTask.getFailReason());
             personality.doSadEmote();
             buildingTask = null;
             currentState = AIState.IDLE;
@@ -746,7 +907,7 @@ public class CompanionAI {
     private void goTo(BlockPos pos) {
         targetPos = pos;
         currentState = AIState.GOING_TO;
-        companion.getNavigation().moveTo(pos.getX(), pos.getY(), pos.getZ(), 1.0);
+        companion.getNavigationManager().moveTo(pos.getX(), pos.getY(), pos.getZ(), 1.0);
     }
 
     private void comeToOwner() {
@@ -757,6 +918,7 @@ public class CompanionAI {
     }
 
     private void startMining(String blockType, int count) {
+        cancelMining();
         miningTask = new MiningTask(companion, blockType, count, 32);
 
         if (miningTask.isFailed()) {
@@ -771,6 +933,20 @@ public class CompanionAI {
         personality.onTaskStart("mining");
     }
 
+    private void cancelMining() {
+        if (miningTask != null) {
+            miningTask.cancel();
+            miningTask = null;
+        }
+    }
+
+    /**
+     * Release anything that outlives the companion otherwise (background scans, block indexes).
+     */
+    public void onRemoved() {
+        cancelMining();
+    }
+
     private void startAttacking(String targetType) {
         currentState = AIState.ATTACKING;
         targetEntity = findAttackTarget(targetType);
@@ -792,37 +968,30 @@ public class CompanionAI {
         final EntityType<?> searchType = specificType;
         Player owner = companion.getOwner();
 
-        List<LivingEntity> entities = companion.level().getEntitiesOfClass(
+        List<LivingEntity> entities = EntitySnapshot.of(companion.level()).query(
                 LivingEntity.class,
                 companion.getBoundingBox().inflate(16),
                 e -> {
                     if (!e.isAlive() || e == companion || e == owner) {
                         return false;
                     }
-                    // Never attack players or companions
-                    if (e instanceof Player || e instanceof CompanionEntity) {
+                    // Never attack players, companions or anything listed as off limits
+                    int categories = EntityCategories.get(e);
+                    if ((categories & EntityCategories.NEVER_ATTACK) != 0) {
                         return false;
                     }
                     // If specific type requested, match it
                     if (searchType != null) {
                         return e.getType() == searchType;
                     }
-                    // Target anything that is hostile (Monster is a subclass)
-                    if (e instanceof Monster) {
+                    // Target anything hostile (monsters, raiders, bosses, configured mobs)
+                    if ((categories & EntityCategories.HOSTILE) != 0) {
                         return true;
                     }
                     // Target any mob that is targeting the owner or companion
                     if (e instanceof Mob mob) {
                         LivingEntity target = mob.getTarget();
-                        if (target != null && (target == owner || target == companion)) {
-                            return true;
-                        }
-                    }
-                    // Target anything with "hostile" or aggressive in its name (for modded mobs)
-                    String entityName = e.getType().getDescriptionId().toLowerCase();
-                    if (entityName.contains("hostile") || entityName.contains("titan") ||
-                        entityName.contains("boss") || entityName.contains("monster")) {
-                        return true;
+                        return target != null && (target == owner || target == companion);
                     }
                     return false;
                 }
@@ -1113,15 +1282,10 @@ public class CompanionAI {
             return;
         }
 
-        // Try to parse block name
-        ResourceLocation blockId = blockName.contains(":")
-            ? ResourceLocation.tryParse(blockName)
-            : ResourceLocation.withDefaultNamespace(blockName.toLowerCase().replace(" ", "_"));
-
-        if (blockId != null && BuiltInRegistries.BLOCK.containsKey(blockId)) {
-            net.minecraft.world.level.block.Block block = BuiltInRegistries.BLOCK.get(blockId);
+        net.minecraft.world.level.block.Block block = RegistryNameIndex.BLOCKS.resolveOne(blockName);
+        if (block != null) {
             BuildingGadgetsIntegration.setGadgetBlock(gadget, block.defaultBlockState());
-            sendMessage("Set gadget to place " + blockName + "!");
+            sendMessage("Set gadget to place " + BuiltInRegistries.BLOCK.getKey(block).getPath().replace("_", " ") + "!");
         } else {
             sendMessage("I don't know what block '" + blockName + "' is.");
         }
@@ -1279,14 +1443,9 @@ public class CompanionAI {
         String searchName = itemName.toLowerCase().replace(" ", "_");
         int stored = 0;
 
-        for (int i = 0; i < companion.getContainerSize(); i++) {
+        for (int i : companion.getIndexedInventory().slotsOf(item -> matchesItemName(item, searchName))) {
             ItemStack stack = companion.getItem(i);
-            if (stack.isEmpty() || stack == backpack) continue;
-
-            String stackId = BuiltInRegistries.ITEM.getKey(stack.getItem()).getPath().toLowerCase();
-            String stackName = stack.getItem().getDescription().getString().toLowerCase();
-
-            if (stackId.contains(searchName) || stackName.contains(searchName)) {
+            if (stack != backpack) {
                 ItemStack remaining = SophisticatedBackpacksIntegration.insertIntoBackpack(backpack, stack);
                 if (remaining.isEmpty()) {
                     companion.setItem(i, ItemStack.EMPTY);
@@ -1358,22 +1517,9 @@ public class CompanionAI {
 
                 if (!extracted.isEmpty()) {
                     // Add to companion inventory
-                    for (int i = 0; i < companion.getContainerSize(); i++) {
-                        ItemStack slot = companion.getItem(i);
-                        if (slot.isEmpty()) {
-                            companion.setItem(i, extracted);
-                            retrieved += extracted.getCount();
-                            break;
-                        } else if (ItemStack.isSameItemSameComponents(slot, extracted) &&
-                                   slot.getCount() < slot.getMaxStackSize()) {
-                            int space = slot.getMaxStackSize() - slot.getCount();
-                            int toAdd = Math.min(space, extracted.getCount());
-                            slot.grow(toAdd);
-                            retrieved += toAdd;
-                            extracted.shrink(toAdd);
-                            if (extracted.isEmpty()) break;
-                        }
-                    }
+                    int extractedCount = extracted.getCount();
+                    ItemStack leftOver = companion.addToInventory(extracted);
+                    retrieved += extractedCount - leftOver.getCount();
                 }
 
                 if (retrieved >= count) break;
@@ -1449,7 +1595,7 @@ public class CompanionAI {
         Player owner = companion.getOwner();
         if (owner != null) {
             // Run to owner
-            companion.getNavigation().moveTo(owner, 1.5);
+            companion.getNavigationManager().moveTo(owner, 1.5);
         }
         currentState = AIState.FOLLOWING;
         sendMessage("Retreating!");
@@ -1464,47 +1610,48 @@ public class CompanionAI {
         }
 
         String searchName = itemName.toLowerCase().replace(" ", "_");
+        // Also catches tag names and typos ("diamonds", "iron" for raw iron and ingots)
+        Set<net.minecraft.world.item.Item> named = searchName.isEmpty()
+                ? Set.of() : RegistryNameIndex.ITEMS.resolve(searchName);
         int givenCount = 0;
 
-        for (int i = 0; i < companion.getContainerSize() && givenCount < count; i++) {
-            net.minecraft.world.item.ItemStack stack = companion.getItem(i);
-            if (stack.isEmpty()) continue;
-
-            // Check if item matches the search term
-            String itemId = BuiltInRegistries.ITEM.getKey(stack.getItem()).getPath().toLowerCase();
-            String itemDesc = stack.getItem().getDescription().getString().toLowerCase();
+        // Slots whose item matches the search term
+        var matching = companion.getIndexedInventory().slotsOf(item ->
+                searchName.isEmpty() || named.contains(item) || matchesItemName(item, searchName));
 
-            if (itemId.contains(searchName) || itemDesc.contains(searchName) || searchName.isEmpty()) {
-                int toGive = Math.min(stack.getCount(), count - givenCount);
+        for (int i : matching) {
+            if (givenCount >= count) break;
+            net.minecraft.world.item.ItemStack stack = companion.getItem(i);
+            int toGive = Math.min(stack.getCount(), count - givenCount);
 
-                // Create stack to give
-                net.minecraft.world.item.ItemStack giveStack = stack.copy();
-                giveStack.setCount(toGive);
+            // Create stack to give
+            net.minecraft.world.item.ItemStack giveStack = stack.copy();
+            giveStack.setCount(toGive);
 
-                // Try to add to player inventory
-                if (target.getInventory().add(giveStack)) {
-                    stack.shrink(toGive);
-                    if (stack.isEmpty()) {
-                        companion.setItem(i, net.minecraft.world.item.ItemStack.EMPTY);
-                    }
-                    givenCount += toGive;
-                    LLMoblings.LOGGER.info("[{}] Gave {} x{} to {}",
-                            companion.getCompanionName(), giveStack.getItem().getDescription().getString(),
-                            toGive, target.getName().getString());
-                } else {
-                    // Player inventory full, drop at their feet
-                    target.drop(giveStack, false);
-                    stack.shrink(toGive);
-                    if (stack.isEmpty()) {
-                        companion.setItem(i, net.minecraft.world.item.ItemStack.EMPTY);
-                    }
-                    givenCount += toGive;
-                    sendMessage("Your inventory is full, I dropped the items at your feet.");
+            // Try to add to player inventory
+            if (target.getInventory().add(giveStack)) {
+                stack.shrink(toGive);
+                if (stack.isEmpty()) {
+                    companion.setItem(i, net.minecraft.world.item.ItemStack.EMPTY);
+                }
+                givenCount += toGive;
+                LLMoblings.LOGGER.info("[{}] Gave {} x{} to {}",
+                        companion.getCompanionName(), giveStack.getItem().getDescription().getString(),
+                        toGive, target.getName().getString());
+            } else {
+                // Player inventory full, drop at their feet
+                target.drop(giveStack, false);
+                stack.shrink(toGive);
+                if (stack.isEmpty()) {
+                    companion.setItem(i, net.minecraft.world.item.ItemStack.EMPTY);
                 }
+                givenCount += toGive;
+                sendMessage("Your inventory is full, I dropped the items at your feet.");
             }
         }
 
         if (givenCount > 0) {
+            companion.setChanged();
             sendMessage("Here you go! Gave you " + givenCount + " " + itemName + ".");
         } else if (itemName.isEmpty()) {
             sendMessage("What item would you like me to give you?");
@@ -1513,13 +1660,18 @@ public class CompanionAI {
         }
     }
 
+    /**
+     * Whether an item's id or display name contains a search term (lowercase, underscores for spaces).
+     */
+    private static boolean matchesItemName(net.minecraft.world.item.Item item, String searchName) {
+        return BuiltInRegistries.ITEM.getKey(item).getPath().contains(searchName)
+                || item.getDescription().getString().toLowerCase().contains(searchName);
+    }
+
     private String buildStatusReport() {
         float health = companion.getHealth();
         float maxHealth = companion.getMaxHealth();
-        int itemCount = 0;
-        for (int i = 0; i < companion.getContainerSize(); i++) {
-            if (!companion.getItem(i).isEmpty()) itemCount++;
-        }
+        int itemCount = companion.getIndexedInventory().usedSlots();
 
         return String.format(
                 "Health: %.0f/%.0f, Inventory: %d/%d slots used, State: %s",
@@ -1534,8 +1686,8 @@ public class CompanionAI {
     private String buildScanReport(int radius) {
         AABB scanBox = companion.getBoundingBox().inflate(radius);
 
-        List<Monster> hostiles = companion.level().getEntitiesOfClass(Monster.class, scanBox);
-        List<LivingEntity> friendlies = companion.level().getEntitiesOfClass(LivingEntity.class, scanBox,
+        List<Monster> hostiles = EntitySnapshot.of(companion.level()).query(Monster.class, scanBox);
+        List<LivingEntity> friendlies = EntitySnapshot.of(companion.level()).query(LivingEntity.class, scanBox,
                 e -> !(e instanceof Monster) && !(e instanceof Player));
 
         String report = String.format(
@@ -1646,39 +1798,16 @@ public class CompanionAI {
 
     private void equipBestGear() {
         // Check current weapon - only skip if already holding a WEAPON
+        EquipmentOptimizer equipment = companion.getEquipment();
         ItemStack currentWeapon = companion.getMainHandItem();
-        boolean holdingWeapon = !currentWeapon.isEmpty() &&
-            (currentWeapon.getItem() instanceof SwordItem || currentWeapon.getItem() instanceof AxeItem);
+        boolean holdingWeapon = !currentWeapon.isEmpty() && EquipmentOptimizer.isWeapon(currentWeapon.getItem());
 
-        // Search inventory for best weapon
-        ItemStack bestWeapon = ItemStack.EMPTY;
-        int bestSlot = -1;
-        double bestDamage = holdingWeapon ? getWeaponDamage(currentWeapon) : 0;
-
-        for (int i = 0; i < companion.getContainerSize(); i++) {
-            ItemStack stack = companion.getItem(i);
-            if (stack.isEmpty()) continue;
-
-            Item item = stack.getItem();
-            if (item instanceof SwordItem || item instanceof AxeItem) {
-                double damage = getWeaponDamage(stack);
-                if (damage > bestDamage) {
-                    bestWeapon = stack;
-                    bestSlot = i;
-                    bestDamage = damage;
-                }
-            }
-        }
+        int bestSlot = equipment.bestWeaponSlot();
+        float currentScore = holdingWeapon ? equipment.score(currentWeapon) : 0;
 
-        if (!bestWeapon.isEmpty() && bestSlot >= 0) {
-            // Put current item back in inventory if holding something
-            if (!currentWeapon.isEmpty()) {
-                companion.addToInventory(currentWeapon.copy());
-            }
-            // Equip the better weapon
-            companion.setItemSlot(EquipmentSlot.MAINHAND, bestWeapon.copy());
-            companion.setItem(bestSlot, ItemStack.EMPTY);
-            sendMessage("Equipped " + bestWeapon.getHoverName().getString() + "!");
+        if (bestSlot >= 0 && equipment.score(companion.getItem(bestSlot)) > currentScore) {
+            ItemStack equipped = equipment.swapIntoHand(bestSlot);
+            sendMessage("Equipped " + equipped.getHoverName().getString() + "!");
         } else if (holdingWeapon) {
             sendMessage("I'm already using my best weapon: " + currentWeapon.getHoverName().getString());
         } else {
@@ -1688,16 +1817,6 @@ public class CompanionAI {
         }
     }
 
-    private double getWeaponDamage(ItemStack stack) {
-        Item item = stack.getItem();
-        if (item instanceof SwordItem sword) {
-            return sword.getTier().getAttackDamageBonus();
-        } else if (item instanceof AxeItem axe) {
-            return axe.getTier().getAttackDamageBonus();
-        }
-        return 0;
-    }
-
     private String buildInventoryReport() {
         StringBuilder sb = new StringBuilder();
 
@@ -1790,7 +1909,7 @@ public class CompanionAI {
 
         // We'll need to process this in tick() - for now start moving
         // and set up a task to extract/craft when we arrive
-        companion.getNavigation().moveTo(terminal.getX() + 0.5, terminal.getY(), terminal.getZ() + 0.5, 1.0);
+        companion.getNavigationManager().moveTo(terminal.getX() + 0.5, terminal.getY(), terminal.getZ() + 0.5, 1.0);
 
         // Schedule gear retrieval after reaching terminal
         // For now, do it immediately if close enough
@@ -1878,35 +1997,22 @@ public class CompanionAI {
         }
 
         // Otherwise add to inventory
-        for (int i = 0; i < companion.getContainerSize(); i++) {
-            if (companion.getItem(i).isEmpty()) {
-                companion.setItem(i, stack.copy());
-                return;
-            }
-        }
+        companion.addToInventory(stack.copy());
     }
 
     private void equipAllGear() {
-        // Go through inventory and equip any armor/weapons
-        for (int i = 0; i < companion.getContainerSize(); i++) {
-            ItemStack stack = companion.getItem(i);
-            if (stack.isEmpty()) continue;
-
-            Item item = stack.getItem();
-
-            if (item instanceof ArmorItem armorItem) {
-                EquipmentSlot slot = armorItem.getEquipmentSlot();
-                if (companion.getItemBySlot(slot).isEmpty()) {
-                    companion.setItemSlot(slot, stack.copy());
-                    companion.setItem(i, ItemStack.EMPTY);
-                }
+        // Fill empty armor slots and an empty hand with the best we're carrying
+        EquipmentOptimizer equipment = companion.getEquipment();
+        for (EquipmentSlot slot : EquipmentOptimizer.ARMOR_SLOTS) {
+            int best = equipment.bestArmorSlot(slot);
+            if (best >= 0 && companion.getItemBySlot(slot).isEmpty()) {
+                equipment.swapIntoArmor(best, slot);
             }
+        }
 
-            if ((item instanceof SwordItem || item instanceof AxeItem) &&
-                    companion.getMainHandItem().isEmpty()) {
-                companion.setItemSlot(EquipmentSlot.MAINHAND, stack.copy());
-                companion.setItem(i, ItemStack.EMPTY);
-            }
+        int best = equipment.bestWeaponSlot();
+        if (best >= 0 && companion.getMainHandItem().isEmpty()) {
+            equipment.swapIntoHand(best);
         }
     }
 
@@ -1942,7 +2048,7 @@ public class CompanionAI {
                 currentState = AIState.GOING_TO;
                 targetPos = terminal;
                 pendingDepositRequest = new DepositRequest(terminal, true, keepGear);
-                companion.getNavigation().moveTo(terminal.getX() + 0.5, terminal.getY(), terminal.getZ() + 0.5, 1.0);
+                companion.getNavigationManager().moveTo(terminal.getX() + 0.5, terminal.getY(), terminal.getZ() + 0.5, 1.0);
 
                 double distance = companion.position().distanceTo(Vec3.atCenterOf(terminal));
                 if (distance < 5.0) {
@@ -1959,7 +2065,7 @@ public class CompanionAI {
             currentState = AIState.GOING_TO;
             targetPos = chest;
             pendingDepositRequest = new DepositRequest(chest, false, keepGear);
-            companion.getNavigation().moveTo(chest.getX() + 0.5, chest.getY(), chest.getZ() + 0.5, 1.0);
+            companion.getNavigationManager().moveTo(chest.getX() + 0.5, chest.getY(), chest.getZ() + 0.5, 1.0);
 
             double distance = companion.position().distanceTo(Vec3.atCenterOf(chest));
             if (distance < 3.0) {
@@ -1976,18 +2082,8 @@ public class CompanionAI {
     private record DepositRequest(BlockPos pos, boolean isME, boolean keepGear) {}
 
     private BlockPos findNearbyChest(ServerLevel level, int radius) {
-        BlockPos center = companion.blockPosition();
-        for (int x = -radius; x <= radius; x++) {
-            for (int y = -3; y <= 3; y++) {
-                for (int z = -radius; z <= radius; z++) {
-                    BlockPos pos = center.offset(x, y, z);
-                    if (level.getBlockEntity(pos) instanceof net.minecraft.world.level.block.entity.BaseContainerBlockEntity) {
-                        return pos;
-                    }
-                }
-            }
-        }
-        return null;
+        return BlockEntitySearch.findNearest(level, companion.blockPosition(), radius, 3,
+                be -> be instanceof net.minecraft.world.level.block.entity.BaseContainerBlockEntity);
     }
 
     private void executeDeposit(ServerLevel level, BlockPos storagePos, boolean isME, boolean keepGear) {
@@ -2274,7 +2370,7 @@ public class CompanionAI {
                 // Find nearest portal block
                 BlockPos nearestPortal = findNearestPortal(16);
                 if (nearestPortal != null) {
-                    companion.getNavigation().moveTo(
+                    companion.getNavigationManager().moveTo(
                             nearestPortal.getX() + 0.5,
                             nearestPortal.getY(),
                             nearestPortal.getZ() + 0.5,
@@ -2305,30 +2401,9 @@ public class CompanionAI {
      * Find the nearest portal block within the given radius.
      */
     private BlockPos findNearestPortal(int radius) {
-        BlockPos companionPos = companion.blockPosition();
-        BlockPos nearest = null;
-        double nearestDist = Double.MAX_VALUE;
-
-        for (int x = -radius; x <= radius; x++) {
-            for (int y = -radius / 2; y <= radius / 2; y++) {
-                for (int z = -radius; z <= radius; z++) {
-                    BlockPos checkPos = companionPos.offset(x, y, z);
-                    if (companion.level() instanceof ServerLevel serverLevel) {
-                        net.minecraft.world.level.block.state.BlockState state = serverLevel.getBlockState(checkPos);
-                        // Check for nether portal or end portal
-                        if (state.is(net.minecraft.world.level.block.Blocks.NETHER_PORTAL) ||
-                            state.is(net.minecraft.world.level.block.Blocks.END_PORTAL)) {
-                            double dist = companionPos.distSqr(checkPos);
-                            if (dist < nearestDist) {
-                                nearestDist = dist;
-                                nearest = checkPos;
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return nearest;
+        // Nether portal or end portal blocks
+        return PointOfInterestIndex.findNearest(companion.level(), companion.blockPosition(), radius, radius / 2,
+                PointOfInterestIndex.PoiType.PORTAL);
     }
 
     /**
@@ -2341,7 +2416,7 @@ public class CompanionAI {
             BlockPos elevatorPos = findNearbyElevator(16);
             if (elevatorPos != null) {
                 sendMessage("I see an elevator nearby, let me walk over to it.");
-                companion.getNavigation().moveTo(
+                companion.getNavigationManager().moveTo(
                         elevatorPos.getX() + 0.5,
                         elevatorPos.getY() + 1,
                         elevatorPos.getZ() + 0.5,
@@ -2441,24 +2516,8 @@ public class CompanionAI {
      * Find nearby elevator block.
      */
     private BlockPos findNearbyElevator(int radius) {
-        BlockPos companionPos = companion.blockPosition();
-
-        for (int x = -radius; x <= radius; x++) {
-            for (int y = -5; y <= 5; y++) {
-                for (int z = -radius; z <= radius; z++) {
-                    BlockPos checkPos = companionPos.offset(x, y, z);
-                    if (companion.level() instanceof ServerLevel serverLevel) {
-                        net.minecraft.world.level.block.state.BlockState state = serverLevel.getBlockState(checkPos);
-                        String blockName = net.minecraft.core.registries.BuiltInRegistries.BLOCK
-                                .getKey(state.getBlock()).toString();
-                        if (blockName.contains("elevator")) {
-                            return checkPos;
-                        }
-                    }
-                }
-            }
-        }
-        return null;
+        return PointOfInterestIndex.findNearest(companion.level(), companion.blockPosition(), radius, 5,
+                PointOfInterestIndex.PoiType.ELEVATOR);
     }
 
     private void sendMessage(String message) {
@@ -2475,11 +2534,7 @@ public class CompanionAI {
         Component component = Component.literal(formatted);
 
         // Send to all players within 64 blocks
-        List<Player> nearbyPlayers = companion.level().getEntitiesOfClass(
-                Player.class,
-                companion.getBoundingBox().inflate(64),
-                Player::isAlive
-        );
+        List<Player> nearbyPlayers = EntitySnapshot.playersNear(companion, 64, player -> true);
 
         for (Player player : nearbyPlayers) {
             player.sendSystemMessage(component);
@@ -2492,10 +2547,70 @@ public class CompanionAI {
         return currentState;
     }
 
+    /**
+     * True while running a job that goes on without the owner (autonomous, mining, building).
+     */
+    public boolean isOnLongJob() {
+        return currentState == AIState.AUTONOMOUS || currentState == AIState.MINING || currentState == AIState.BUILDING;
+    }
+
     public void onCompanionHurt() {
         personality.onHurt();
     }
 
+    // ========== LONG-TERM MEMORY ==========
+
+    /**
+     * Get this companion's persistent memory store, or null if it can't be resolved yet
+     * (client side, or no owner assigned).
+     */
+    private CompanionMemory getMemory() {
+        if (memory == null && companion.level() instanceof ServerLevel serverLevel && companion.getOwnerUUID() != null) {
+            memory = CompanionMemoryData.get(serverLevel).getMemory(companion.getOwnerUUID(), companion.getCompanionName());
+        }
+        return memory;
+    }
+
+    /**
+     * Record an event in long-term memory so it can be recalled in later conversations.
+     */
+    public void remember(String event) {
+        CompanionMemory mem = getMemory();
+        if (mem != null) {
+            mem.remember(event, companion.level().getGameTime());
+        }
+    }
+
+    private void rememberPending() {
+        if (pendingMemory != null) {
+            remember(pendingMemory);
+            pendingMemory = null;
+        }
+    }
+
+    /**
+     * Coarse world-state signature for the response cache: only things that would change
+     * the answer to a repeated message (state, dimension, day/night, health band, personality).
+     */
+    private String buildCacheSignature() {
+        boolean night = companion.level().getDayTime() % 24000 >= 13000;
+        int healthBand = (int) (companion.getHealth() / companion.getMaxHealth() * 4);
+        return currentState + ":" + companion.level().dimension().location() + ":" + (night ? "night" : "day")
+                + ":" + healthBand + ":" + personality.getPersonalityType();
+    }
+
+    /**
+     * Key this companion's LLM usage is tracked under, or null if it has no owner.
+     */
+    public String getUsageKey() {
+        UUID owner = companion.getOwnerUUID();
+        return owner != null ? TokenBudget.companionKey(owner, companion.getCompanionName()) : null;
+    }
+
+    private static String formatPos(BlockPos pos) {
+        return pos.getX() + ", " + pos.getY() + ", " + pos.getZ();
+    }
+
     public enum AIState {
         IDLE,
         FOLLOWING,
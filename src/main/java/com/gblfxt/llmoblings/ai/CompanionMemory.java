@@ -0,0 +1,182 @@
+package com.gblfxt.llmoblings.ai;
+
+import com.gblfxt.llmoblings.Config;
+import com.gblfxt.llmoblings.LLMoblings;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.IntArrayTag;
+import net.minecraft.nbt.ListTag;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Long-term episodic memory for a single companion.
+ * Events are embedded via Ollama and kept in a flat vector index; recall returns
+ * the entries most similar to a query so only relevant memories reach the prompt.
+ */
+public class CompanionMemory {
+
+    // Below this cosine similarity a memory is considered unrelated to the query
+    private static final float MIN_SIMILARITY = 0.35f;
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final Runnable onChanged;
+    private String lastRecorded = null;
+
+    /**
+     * @param onChanged called whenever entries are added, so the owning save data can be marked dirty
+     */
+    public CompanionMemory(Runnable onChanged) {
+        this.onChanged = onChanged;
+    }
+
+    /**
+     * Record an event. The embedding is fetched off-thread; the entry is stored once it arrives.
+     */
+    public void remember(String text, long gameTime) {
+        if (!Config.MEMORY_ENABLED.get() || text == null || text.isBlank()) {
+            return;
+        }
+
+        synchronized (entries) {
+            // Skip exact repeats (e.g. the same autonomous report every cycle)
+            if (text.equals(lastRecorded)) {
+                return;
+            }
+            lastRecorded = text;
+        }
+
+        CompletableFuture.runAsync(() -> {
+            try {
+                float[] vector = normalize(OllamaClient.embed(text));
+                synchronized (entries) {
+                    entries.add(new Entry(gameTime, text, vector));
+                    int max = Config.MEMORY_MAX_ENTRIES.get();
+                    while (entries.size() > max) {
+                        entries.remove(0);
+                    }
+                }
+                onChanged.run();
+            } catch (Exception e) {
+                LLMoblings.LOGGER.debug("Could not embed memory '{}': {}", text, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Return up to {@code count} memories most relevant to the query, oldest first.
+     * Blocking (fetches the query embedding) - call from a background thread.
+     */
+    public List<String> recall(String query, int count) {
+        synchronized (entries) {
+            if (entries.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        float[] queryVector;
+        try {
+            queryVector = normalize(OllamaClient.embed(query));
+        } catch (Exception e) {
+            LLMoblings.LOGGER.debug("Could not embed memory query: {}", e.getMessage());
+            return List.of();
+        }
+
+        List<Scored> scored = new ArrayList<>();
+        synchronized (entries) {
+            for (Entry entry : entries) {
+                if (entry.vector().length != queryVector.length) {
+                    continue;  // Embedded with a different model
+                }
+                float similarity = dot(entry.vector(), queryVector);
+                if (similarity >= MIN_SIMILARITY) {
+                    scored.add(new Scored(entry, similarity));
+                }
+            }
+        }
+
+        return scored.stream()
+                .sorted(Comparator.comparingDouble(Scored::similarity).reversed())
+                .limit(count)
+                .map(Scored::entry)
+                .sorted(Comparator.comparingLong(Entry::gameTime))
+                .map(Entry::text)
+                .toList();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            lastRecorded = null;
+        }
+        onChanged.run();
+    }
+
+    public ListTag save() {
+        ListTag list = new ListTag();
+        synchronized (entries) {
+            for (Entry entry : entries) {
+                CompoundTag tag = new CompoundTag();
+                tag.putLong("Time", entry.gameTime());
+                tag.putString("Text", entry.text());
+                int[] bits = new int[entry.vector().length];
+                for (int i = 0; i < bits.length; i++) {
+                    bits[i] = Float.floatToIntBits(entry.vector()[i]);
+                }
+                tag.put("Vector", new IntArrayTag(bits));
+                list.add(tag);
+            }
+        }
+        return list;
+    }
+
+    public void load(ListTag list) {
+        synchronized (entries) {
+            entries.clear();
+            for (int i = 0; i < list.size(); i++) {
+                CompoundTag tag = list.getCompound(i);
+                int[] bits = tag.getIntArray("Vector");
+                float[] vector = new float[bits.length];
+                for (int j = 0; j < bits.length; j++) {
+                    vector[j] = Float.intBitsToFloat(bits[j]);
+                }
+                entries.add(new Entry(tag.getLong("Time"), tag.getString("Text"), vector));
+            }
+        }
+    }
+
+    private static float[] normalize(float[] vector) {
+        double sum = 0;
+        for (float v : vector) {
+            sum += v * v;
+        }
+        if (sum == 0) {
+            return vector;
+        }
+        float inv = (float) (1.0 / Math.sqrt(sum));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= inv;
+        }
+        return vector;
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    public record Entry(long gameTime, String text, float[] vector) {}
+
+    private record Scored(Entry entry, float similarity) {}
+}
@@ -1,6 +1,7 @@
 package com.gblfxt.llmoblings.ai;
 
 import com.gblfxt.llmoblings.Config;
+import com.gblfxt.llmoblings.EntitySnapshot;
 import com.gblfxt.llmoblings.LLMoblings;
 import com.gblfxt.llmoblings.entity.CompanionEntity;
 import net.minecraft.core.particles.ParticleTypes;
@@ -39,6 +40,9 @@ public class CompanionPersonality {
     private int ticksSinceLastRare = 0;
     private int ticksSinceLastLegendary = 0;
 
+    // LLM-generated lines, filled in the background while the LLM is idle
+    private final GeneratedDialoguePool generatedLines = new GeneratedDialoguePool();
+
     // ==================== PERSONALITY TYPES ====================
 
     public enum PersonalityType {
@@ -506,20 +510,29 @@ public class CompanionPersonality {
 
     // ==================== MAIN TICK ====================
 
-    public void tick() {
-        if (chatCooldown > 0) chatCooldown--;
-        if (emoteCooldown > 0) emoteCooldown--;
-        if (jokeCooldown > 0) jokeCooldown--;
-        if (interactionCooldown > 0) interactionCooldown--;
-        if (moodDuration > 0) moodDuration--;
+    /**
+     * Advance by one or more ticks. Cooldowns and timers catch up; the random behaviors
+     * still get one roll, so chatter is rarer when ticked less often.
+     */
+    public void tick(int elapsed) {
+        chatCooldown = Math.max(0, chatCooldown - elapsed);
+        emoteCooldown = Math.max(0, emoteCooldown - elapsed);
+        jokeCooldown = Math.max(0, jokeCooldown - elapsed);
+        interactionCooldown = Math.max(0, interactionCooldown - elapsed);
+        moodDuration = Math.max(0, moodDuration - elapsed);
 
-        ticksSinceLastRare++;
-        ticksSinceLastLegendary++;
+        ticksSinceLastRare += elapsed;
+        ticksSinceLastLegendary += elapsed;
 
         if (moodDuration <= 0) {
             mood = "content";
         }
 
+        // Top up generated dialogue (never blocks - skipped while the LLM is busy)
+        if (companion.tickCount % 200 < elapsed) {
+            generatedLines.tick(companion.getCompanionName(), personalityType, mood);
+        }
+
         // Random behaviors with rarity system
         if (random.nextInt(800) == 0) {
             doRandomBehavior();
@@ -581,7 +594,7 @@ public class CompanionPersonality {
     private void doCommonBehavior() {
         String[] pool = getIdleChat();
         if (pool.length > 0) {
-            say(getRandomFrom(pool));
+            say(pickLine(GeneratedDialoguePool.Context.IDLE, pool));
         }
     }
 
@@ -687,9 +700,9 @@ public class CompanionPersonality {
         if (chatCooldown > 0 || random.nextInt(3) != 0) return;
 
         String message = switch (taskType.toLowerCase()) {
-            case "mining", "gathering" -> getRandomFrom(getMiningChat());
+            case "mining", "gathering" -> pickLine(GeneratedDialoguePool.Context.MINING, getMiningChat());
             case "hunting" -> getHuntingComment();
-            case "attacking", "defending", "combat" -> getRandomFrom(getCombatChat());
+            case "attacking", "defending", "combat" -> pickLine(GeneratedDialoguePool.Context.COMBAT, getCombatChat());
             case "building" -> getBuildingComment();
             default -> null;
         };
@@ -746,7 +759,7 @@ public class CompanionPersonality {
 
     public void onCombat() {
         if (chatCooldown > 0 || random.nextInt(5) != 0) return;
-        say(getRandomFrom(getCombatChat()));
+        say(pickLine(GeneratedDialoguePool.Context.COMBAT, getCombatChat()));
     }
 
     public void onHurt() {
@@ -797,11 +810,7 @@ public class CompanionPersonality {
         if (interactionCooldown > 0) return;
 
         // Find nearby players (not owner)
-        List<Player> nearbyPlayers = companion.level().getEntitiesOfClass(
-            Player.class,
-            companion.getBoundingBox().inflate(16),
-            p -> p.isAlive() && p != companion.getOwner()
-        );
+        List<Player> nearbyPlayers = EntitySnapshot.playersNear(companion, 16, p -> p != companion.getOwner());
 
         if (!nearbyPlayers.isEmpty()) {
             Player target = nearbyPlayers.get(random.nextInt(nearbyPlayers.size()));
@@ -878,7 +887,8 @@ public class CompanionPersonality {
                     case SARCASTIC -> "Great. Darkness. My favorite.";
                     case MYSTERIOUS -> "The night holds many secrets...";
                 };
-                say(nightComment);
+                String generated = generatedLines.take(GeneratedDialoguePool.Context.NIGHT);
+                say(generated != null ? generated : nightComment);
                 return;
             }
 
@@ -892,13 +902,14 @@ public class CompanionPersonality {
                     case SARCASTIC -> "I love being soggy. Said no one ever.";
                     case MYSTERIOUS -> "The sky weeps... but why?";
                 };
-                say(rainComment);
+                String generated = generatedLines.take(GeneratedDialoguePool.Context.RAIN);
+                say(generated != null ? generated : rainComment);
                 return;
             }
         }
 
         // Default to idle
-        say(getRandomFrom(getIdleChat()));
+        say(pickLine(GeneratedDialoguePool.Context.IDLE, getIdleChat()));
     }
 
     // ==================== EMOTES ====================
@@ -1025,11 +1036,7 @@ public class CompanionPersonality {
         String formatted = "[" + companion.getCompanionName() + "] " + message;
         Component component = Component.literal(formatted);
 
-        List<Player> nearbyPlayers = companion.level().getEntitiesOfClass(
-            Player.class,
-            companion.getBoundingBox().inflate(64),
-            Player::isAlive
-        );
+        List<Player> nearbyPlayers = EntitySnapshot.playersNear(companion, 64, player -> true);
 
         for (Player player : nearbyPlayers) {
             player.sendSystemMessage(component);
@@ -1047,6 +1054,14 @@ public class CompanionPersonality {
         return mood;
     }
 
+    /**
+     * Prefer a fresh LLM-generated line for the context; fall back to the static pool.
+     */
+    private String pickLine(GeneratedDialoguePool.Context context, String[] fallback) {
+        String generated = generatedLines.take(context);
+        return generated != null ? generated : getRandomFrom(fallback);
+    }
+
     private String getRandomFrom(String[] options) {
         if (options == null || options.length == 0) return "";
         return options[random.nextInt(options.length)];
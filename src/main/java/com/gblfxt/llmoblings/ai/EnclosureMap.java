@@ -0,0 +1,229 @@
+package com.gblfxt.llmoblings.ai;
+
+import com.gblfxt.llmoblings.BlockCategories;
+import com.gblfxt.llmoblings.LLMoblings;
+import it.unimi.dsi.fastutil.longs.Long2BooleanOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.level.BlockEvent;
+import net.neoforged.neoforge.event.level.ChunkEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Which parts of the world look like animal pens (fences and walls all around, hay, troughs
+ * and feeders nearby), so hunting can skip farm animals without inspecting the blocks around
+ * every candidate.
+ *
+ * The world is split into 4x4x4 cells. Each cell's fence and farm-block counts are read once,
+ * the first time a query needs them, and each cell's verdict is worked out from the counts of
+ * the 3x3 cells around it in its own layer and the layer below, so fences on other floors
+ * don't count. Both are kept until a block inside changes, so asking about an animal is one
+ * map lookup plus a look at the block it stands on. Cells in chunks that aren't
+ * loaded count as empty and the verdicts that depended on them aren't kept.
+ *
+ * Server thread only.
+ */
+@EventBusSubscriber(modid = LLMoblings.MOD_ID)
+public class EnclosureMap {
+
+    private static final int CELL_SHIFT = 2;
+    private static final int CELL_SIZE = 1 << CELL_SHIFT;
+
+    // Same thresholds the per-animal scan used
+    private static final int MIN_ENCLOSURE_BLOCKS = 8;
+    private static final int MIN_FARM_BLOCKS = 2;
+
+    // Counts are packed as enclosure | farm << 16
+    private static final int FARM_SHIFT = 16;
+    private static final int UNLOADED = -1;
+
+    // Forget everything rather than grow without bound
+    private static final int MAX_CELLS = 8192;
+
+    private static final Map<ResourceKey<Level>, Cells> levels = new HashMap<>();
+
+    private static class Cells {
+        private final Long2IntOpenHashMap counts = new Long2IntOpenHashMap();
+        private final Long2BooleanOpenHashMap penned = new Long2BooleanOpenHashMap();
+    }
+
+    // ========== QUERIES ==========
+
+    /**
+     * True if a position is inside a fenced pen, near farm blocks, or on player-made flooring.
+     */
+    public static boolean isPenned(Level level, BlockPos pos) {
+        if (BlockCategories.has(level.getBlockState(pos.below()), BlockCategories.PLAYER_FLOOR)) {
+            // Standing on player-made flooring - likely a farm or barn
+            return true;
+        }
+        if (level.isClientSide()) {
+            return false;
+        }
+
+        Cells cells = levels.computeIfAbsent(level.dimension(), key -> new Cells());
+        long cell = BlockPos.asLong(pos.getX() >> CELL_SHIFT, pos.getY() >> CELL_SHIFT, pos.getZ() >> CELL_SHIFT);
+        if (cells.penned.containsKey(cell)) {
+            return cells.penned.get(cell);
+        }
+
+        if (cells.counts.size() > MAX_CELLS) {
+            cells.counts.clear();
+            cells.penned.clear();
+        }
+
+        int enclosure = 0;
+        int farm = 0;
+        boolean complete = true;
+        int cx = BlockPos.getX(cell), cy = BlockPos.getY(cell), cz = BlockPos.getZ(cell);
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                for (int dy = -1; dy <= 0; dy++) {
+                    int counts = counts(level, cells, cx + dx, cy + dy, cz + dz);
+                    if (counts == UNLOADED) {
+                        complete = false;
+                        continue;
+                    }
+                    enclosure += counts & 0xFFFF;
+                    farm += counts >>> FARM_SHIFT;
+                }
+            }
+        }
+
+        boolean result = enclosure >= MIN_ENCLOSURE_BLOCKS || farm >= MIN_FARM_BLOCKS;
+        if (complete) {
+            cells.penned.put(cell, result);
+        }
+        return result;
+    }
+
+    private static int counts(Level level, Cells cells, int cx, int cy, int cz) {
+        long cell = BlockPos.asLong(cx, cy, cz);
+        if (cells.counts.containsKey(cell)) {
+            return cells.counts.get(cell);
+        }
+
+        // Cells never straddle chunks, so one chunk holds every block in it
+        LevelChunk chunk = level.getChunkSource().getChunkNow(cx >> (4 - CELL_SHIFT), cz >> (4 - CELL_SHIFT));
+        if (chunk == null) {
+            return UNLOADED;
+        }
+
+        int enclosure = 0;
+        int farm = 0;
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        int minY = cy << CELL_SHIFT;
+        if (minY + CELL_SIZE > level.getMinBuildHeight() && minY < level.getMaxBuildHeight()) {
+            for (int x = cx << CELL_SHIFT; x < (cx << CELL_SHIFT) + CELL_SIZE; x++) {
+                for (int z = cz << CELL_SHIFT; z < (cz << CELL_SHIFT) + CELL_SIZE; z++) {
+                    for (int y = minY; y < minY + CELL_SIZE; y++) {
+                        int categories = BlockCategories.get(chunk.getBlockState(pos.set(x, y, z)).getBlock());
+                        if ((categories & BlockCategories.ENCLOSURE) != 0) enclosure++;
+                        if ((categories & BlockCategories.FARM) != 0) farm++;
+                    }
+                }
+            }
+        }
+
+        int packed = enclosure | farm << FARM_SHIFT;
+        cells.counts.put(cell, packed);
+        return packed;
+    }
+
+    // ========== INVALIDATION ==========
+
+    private static void blockChanged(LevelAccessor accessor, BlockPos pos) {
+        if (!(accessor instanceof Level level) || level.isClientSide()) {
+            return;
+        }
+        Cells cells = levels.get(level.dimension());
+        if (cells == null) {
+            return;
+        }
+
+        int cx = pos.getX() >> CELL_SHIFT, cy = pos.getY() >> CELL_SHIFT, cz = pos.getZ() >> CELL_SHIFT;
+        if (!cells.counts.containsKey(BlockPos.asLong(cx, cy, cz))) {
+            // Nothing kept was worked out from this cell
+            return;
+        }
+        cells.counts.remove(BlockPos.asLong(cx, cy, cz));
+        // Verdicts for this layer and the one above read this cell
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                for (int dy = 0; dy <= 1; dy++) {
+                    cells.penned.remove(BlockPos.asLong(cx + dx, cy + dy, cz + dz));
+                }
+            }
+        }
+    }
+
+    private static void dropChunk(LevelAccessor accessor, ChunkPos chunk) {
+        if (!(accessor instanceof Level level) || level.isClientSide()) {
+            return;
+        }
+        Cells cells = levels.get(level.dimension());
+        if (cells == null || cells.counts.isEmpty()) {
+            return;
+        }
+
+        int shift = 4 - CELL_SHIFT;
+        cells.counts.keySet().removeIf((long cell) ->
+                BlockPos.getX(cell) >> shift == chunk.x && BlockPos.getZ(cell) >> shift == chunk.z);
+        // Verdicts one cell outside the chunk read counts inside it too
+        int minX = (chunk.x << shift) - 1, maxX = ((chunk.x + 1) << shift);
+        int minZ = (chunk.z << shift) - 1, maxZ = ((chunk.z + 1) << shift);
+        cells.penned.keySet().removeIf((long cell) -> {
+            int x = BlockPos.getX(cell), z = BlockPos.getZ(cell);
+            return x >= minX && x <= maxX && z >= minZ && z <= maxZ;
+        });
+    }
+
+    // ========== EVENTS ==========
+
+    @SubscribeEvent
+    public static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        blockChanged(event.getLevel(), event.getPos());
+    }
+
+    @SubscribeEvent
+    public static void onBlockPlaced(BlockEvent.EntityPlaceEvent event) {
+        blockChanged(event.getLevel(), event.getPos());
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onBlockBroken(BlockEvent.BreakEvent event) {
+        // Fired before removal; only act once nobody has cancelled it
+        if (!event.isCanceled()) {
+            blockChanged(event.getLevel(), event.getPos());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event) {
+        // Anything we had for this chunk may be out of date
+        dropChunk(event.getLevel(), event.getChunk().getPos());
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        dropChunk(event.getLevel(), event.getChunk().getPos());
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof Level level && !level.isClientSide()) {
+            levels.remove(level.dimension());
+        }
+    }
+}
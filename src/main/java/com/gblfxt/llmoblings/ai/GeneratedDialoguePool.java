@@ -0,0 +1,141 @@
+package com.gblfxt.llmoblings.ai;
+
+import com.gblfxt.llmoblings.Config;
+import com.gblfxt.llmoblings.LLMoblings;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Per-companion cache of LLM-generated chatter, grouped by context.
+ * Batches are only requested while the LLM is idle; lines are consumed once
+ * so they never repeat, and the oldest lines are evicted when a pool is full.
+ */
+public class GeneratedDialoguePool {
+    private static final Gson GSON = new Gson();
+
+    // Refill a context when it drops below this many lines
+    private static final int LOW_WATER_MARK = 3;
+    private static final int BATCH_SIZE = 6;
+    private static final int MAX_LINE_LENGTH = 120;
+
+    private final Map<Context, Deque<String>> pools = new EnumMap<>(Context.class);
+    private CompletableFuture<String> pendingBatch = null;
+    private Context pendingContext = null;
+
+    public enum Context {
+        IDLE("idle chatter while hanging around"),
+        MINING("remarks while mining"),
+        COMBAT("battle cries while fighting monsters"),
+        NIGHT("comments about it being night time"),
+        RAIN("comments about the rain");
+
+        private final String description;
+
+        Context(String description) {
+            this.description = description;
+        }
+    }
+
+    public GeneratedDialoguePool() {
+        for (Context context : Context.values()) {
+            pools.put(context, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Take an unused generated line for the context, or null if none are cached.
+     */
+    public String take(Context context) {
+        synchronized (pools) {
+            return pools.get(context).pollFirst();
+        }
+    }
+
+    /**
+     * Called periodically from the server thread. Collects a finished batch and,
+     * if the LLM is idle, requests a new batch for the emptiest context.
+     */
+    public void tick(String companionName, CompanionPersonality.PersonalityType personality, String mood) {
+        if (pendingBatch != null) {
+            if (!pendingBatch.isDone()) {
+                return;
+            }
+            try {
+                addLines(pendingContext, pendingBatch.join());
+            } catch (Exception e) {
+                // Cancelled for a live request or backend unavailable - try again later
+                LLMoblings.LOGGER.debug("[{}] Background dialogue batch dropped: {}", companionName, e.getMessage());
+            }
+            pendingBatch = null;
+            pendingContext = null;
+        }
+
+        if (!Config.GENERATED_DIALOGUE_ENABLED.get()) {
+            return;
+        }
+
+        Context needed = null;
+        int smallest = Integer.MAX_VALUE;
+        synchronized (pools) {
+            for (Map.Entry<Context, Deque<String>> entry : pools.entrySet()) {
+                int size = entry.getValue().size();
+                if (size < LOW_WATER_MARK && size < smallest) {
+                    smallest = size;
+                    needed = entry.getKey();
+                }
+            }
+        }
+        if (needed == null) {
+            return;
+        }
+
+        CompletableFuture<String> batch = OllamaClient.generateBackground(
+                buildPrompt(companionName, personality, mood, needed), 200);
+        if (batch != null) {
+            pendingBatch = batch;
+            pendingContext = needed;
+        }
+    }
+
+    private String buildPrompt(String companionName, CompanionPersonality.PersonalityType personality,
+                               String mood, Context context) {
+        return """
+You write short in-character lines for %s, a Minecraft companion who is %s (%s). Current mood: %s.
+Write %d different one-sentence lines of %s. Keep each under 100 characters. Actions may go in *asterisks*.
+Respond with ONLY a JSON array of strings.
+""".formatted(companionName, personality.getName(), personality.getDescription(), mood,
+                BATCH_SIZE, context.description);
+    }
+
+    private void addLines(Context context, String response) {
+        int start = response.indexOf('[');
+        int end = response.lastIndexOf(']');
+        if (start < 0 || end <= start) {
+            return;
+        }
+
+        JsonArray lines = GSON.fromJson(response.substring(start, end + 1), JsonArray.class);
+        int maxSize = Config.GENERATED_DIALOGUE_POOL_SIZE.get();
+
+        synchronized (pools) {
+            Deque<String> pool = pools.get(context);
+            for (JsonElement element : lines) {
+                if (!element.isJsonPrimitive()) continue;
+                String line = element.getAsString().trim();
+                if (line.isEmpty() || line.length() > MAX_LINE_LENGTH || pool.contains(line)) continue;
+
+                pool.addLast(line);
+                while (pool.size() > maxSize) {
+                    pool.pollFirst();
+                }
+            }
+        }
+    }
+}
@@ -1,20 +1,22 @@
 package com.gblfxt.llmoblings.ai;
 
+import com.gblfxt.llmoblings.BlockCategories;
 import com.gblfxt.llmoblings.ChunkLoadingManager;
+import com.gblfxt.llmoblings.EntitySnapshot;
 import com.gblfxt.llmoblings.LLMoblings;
+import com.gblfxt.llmoblings.RegistryNameIndex;
+import com.gblfxt.llmoblings.ScanJob;
 import com.gblfxt.llmoblings.compat.AE2Integration;
 import com.gblfxt.llmoblings.entity.CompanionEntity;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.registries.BuiltInRegistries;
-import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.world.Container;
 import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
 
@@ -39,7 +41,7 @@ public class MiningTask {
     private final Set<Block> targetBlocks = new HashSet<>();
 
     // Spatial awareness - protected zones
-    private final Set<BlockPos> protectedPositions = new HashSet<>();
+    private ProtectedZones protectedZones;
     private BlockPos homePos;
     private static final int BASE_PROTECTION_RADIUS = 8;  // Don't mine within 8 blocks of base structures
 
@@ -47,7 +49,7 @@ public class MiningTask {
     private static final int BASE_MINING_TICKS = 30; // About 1.5 seconds base
 
     // Ultimine-style mining queue
-    private final Queue<BlockPos> miningQueue = new LinkedList<>();
+    private final LongArrayFIFOQueue miningQueue = new LongArrayFIFOQueue();
     private boolean isVeinMining = false;
     private boolean isTreeFelling = false;
     private boolean hasEquippedTool = false;
@@ -56,6 +58,13 @@ public class MiningTask {
     // ME network access for tool retrieval
     private BlockPos meAccessPoint = null;
 
+    // Every target block in the working area, kept current from block events
+    private final OreCandidateIndex candidateIndex;
+
+    // Area scans still running; mining starts once they're done
+    private final Deque<ScanJob<?>> setupScans = new ArrayDeque<>();
+    private final int setupScanCount;
+
     public MiningTask(CompanionEntity companion, String blockName, int count, int searchRadius) {
         this.companion = companion;
         this.targetBlockName = blockName.toLowerCase();
@@ -64,11 +73,16 @@ public class MiningTask {
         this.homePos = companion.blockPosition();
 
         resolveTargetBlocks();
-        scanProtectedZones();
-        findMEAccessPoint();
+        candidateIndex = new OreCandidateIndex(companion.level(), targetBlocks);
+
+        // Survey the area over the first few ticks instead of all at once
+        setupScans.add(scanProtectedZones());
+        setupScans.add(findMEAccessPoint());
+        setupScanCount = setupScans.size();
 
         if (targetBlocks.isEmpty()) {
             failed = true;
+            candidateIndex.close();
             failReason = "I don't know what '" + blockName + "' is.";
         }
     }
@@ -76,69 +90,22 @@ public class MiningTask {
     /**
      * Find nearby ME network access points for tool retrieval.
      */
-    private void findMEAccessPoint() {
-        List<BlockPos> meAccessPoints = AE2Integration.findMEAccessPoints(
-                companion.level(), companion.blockPosition(), searchRadius);
-
-        if (!meAccessPoints.isEmpty()) {
-            meAccessPoint = meAccessPoints.get(0);
-            LLMoblings.LOGGER.debug("[{}] Found ME access point at {} for tool retrieval",
-                    companion.getCompanionName(), meAccessPoint);
-        }
+    private ScanJob<List<BlockPos>> findMEAccessPoint() {
+        return AE2Integration.scanMEAccessPoints(companion.level(), homePos, searchRadius, meAccessPoints -> {
+            if (!meAccessPoints.isEmpty()) {
+                meAccessPoint = meAccessPoints.get(0);
+                LLMoblings.LOGGER.debug("[{}] Found ME access point at {} for tool retrieval",
+                        companion.getCompanionName(), meAccessPoint);
+            }
+        });
     }
 
     /**
      * Scan the area to identify structures and protected zones.
      */
-    private void scanProtectedZones() {
-        BlockPos center = companion.blockPosition();
-
-        for (int x = -searchRadius; x <= searchRadius; x++) {
-            for (int y = -10; y <= 10; y++) {
-                for (int z = -searchRadius; z <= searchRadius; z++) {
-                    BlockPos pos = center.offset(x, y, z);
-                    BlockEntity be = companion.level().getBlockEntity(pos);
-
-                    // Protect areas around containers, crafting stations, etc.
-                    if (be instanceof Container || isImportantBlock(companion.level().getBlockState(pos))) {
-                        markProtectedZone(pos, BASE_PROTECTION_RADIUS);
-                    }
-                }
-            }
-        }
-
-        LLMoblings.LOGGER.debug("Identified {} protected positions", protectedPositions.size());
-    }
-
-    private boolean isImportantBlock(BlockState state) {
-        String blockName = BuiltInRegistries.BLOCK.getKey(state.getBlock()).getPath();
-        // Protect crafting stations, furnaces, chests, beds, etc.
-        return blockName.contains("chest") ||
-               blockName.contains("barrel") ||
-               blockName.contains("furnace") ||
-               blockName.contains("crafting") ||
-               blockName.contains("anvil") ||
-               blockName.contains("enchant") ||
-               blockName.contains("bed") ||
-               blockName.contains("door") ||
-               blockName.contains("torch") ||
-               blockName.contains("lantern") ||
-               blockName.contains("campfire") ||
-               blockName.contains("table") ||
-               blockName.contains("workbench") ||
-               blockName.contains("terminal") ||  // AE2
-               blockName.contains("interface") || // AE2
-               blockName.contains("drive");       // AE2
-    }
-
-    private void markProtectedZone(BlockPos center, int radius) {
-        for (int x = -radius; x <= radius; x++) {
-            for (int y = -radius; y <= radius; y++) {
-                for (int z = -radius; z <= radius; z++) {
-                    protectedPositions.add(center.offset(x, y, z));
-                }
-            }
-        }
+    private ScanJob<ProtectedZones> scanProtectedZones() {
+        return ProtectedZones.scanJob(companion.level(), homePos, searchRadius, BASE_PROTECTION_RADIUS,
+                zones -> protectedZones = zones);
     }
 
     /**
@@ -151,7 +118,7 @@ public class MiningTask {
         }
 
         // Don't mine in protected zones
-        if (protectedPositions.contains(pos)) {
+        if (protectedZones != null && protectedZones.contains(pos)) {
             return false;
         }
 
@@ -187,11 +154,12 @@ public class MiningTask {
         }
 
         // Prefer natural generation - ores are always safe
-        String blockId = BuiltInRegistries.BLOCK.getKey(state.getBlock()).getPath();
-        if (blockId.contains("ore") || blockId.contains("_log") || blockId.contains("leaves")) {
+        if (BlockCategories.has(state, BlockCategories.ORE | BlockCategories.LOG | BlockCategories.LEAVES)) {
             return true;  // Natural blocks are safe
         }
 
+        String blockId = BuiltInRegistries.BLOCK.getKey(state.getBlock()).getPath();
+
         // For stone/dirt, only mine if underground (Y < 60 or has blocks above)
         if (blockId.equals("stone") || blockId.equals("cobblestone") ||
             blockId.equals("dirt") || blockId.equals("grass_block")) {
@@ -202,55 +170,14 @@ public class MiningTask {
     }
 
     private void resolveTargetBlocks() {
-        // Try to match block by name (partial matching for convenience)
-        String searchTerm = targetBlockName.replace(" ", "_");
-
-        // Common aliases
-        Map<String, String> aliases = Map.of(
-            "wood", "oak_log",
-            "logs", "oak_log",
-            "stone", "stone",
-            "cobble", "cobblestone",
-            "dirt", "dirt",
-            "iron", "iron_ore",
-            "gold", "gold_ore",
-            "diamond", "diamond_ore",
-            "coal", "coal_ore",
-            "copper", "copper_ore"
-        );
-
-        if (aliases.containsKey(searchTerm)) {
-            searchTerm = aliases.get(searchTerm);
-        }
-
-        // Search all registered blocks
-        for (var entry : BuiltInRegistries.BLOCK.entrySet()) {
-            ResourceLocation id = entry.getKey().location();
-            String blockId = id.getPath();
-
-            // Match if the block ID contains our search term
-            if (blockId.contains(searchTerm) || searchTerm.contains(blockId)) {
-                targetBlocks.add(entry.getValue());
-            }
-        }
-
-        // Special handling for "log" to get all log types
-        if (searchTerm.contains("log") || searchTerm.equals("wood")) {
-            for (var entry : BuiltInRegistries.BLOCK.entrySet()) {
-                String blockId = entry.getKey().location().getPath();
-                if (blockId.endsWith("_log") || blockId.endsWith("_wood")) {
-                    targetBlocks.add(entry.getValue());
-                }
-            }
-        }
-
-        // Special handling for ores
-        if (searchTerm.contains("ore")) {
-            for (var entry : BuiltInRegistries.BLOCK.entrySet()) {
-                String blockId = entry.getKey().location().getPath();
-                if (blockId.contains(searchTerm.replace("_ore", "")) && blockId.contains("ore")) {
-                    targetBlocks.add(entry.getValue());
-                }
+        // "iron" -> every iron ore, "diamnod" -> diamond ore, "cobble" -> cobblestone...
+        targetBlocks.addAll(RegistryNameIndex.BLOCKS.resolve(targetBlockName));
+
+        // Any kind of log means any tree
+        for (Block block : List.copyOf(targetBlocks)) {
+            if (BlockCategories.has(block, BlockCategories.LOG)) {
+                targetBlocks.addAll(RegistryNameIndex.BLOCKS.resolve("logs"));
+                break;
             }
         }
 
@@ -265,6 +192,12 @@ public class MiningTask {
         // Check if we've collected enough
         if (minedCount >= targetCount) {
             completed = true;
+            candidateIndex.close();
+            return;
+        }
+
+        // Finish surveying the area first, a budgeted slice per tick
+        if (!ScanJob.tickSequence(setupScans)) {
             return;
         }
 
@@ -275,7 +208,7 @@ public class MiningTask {
         if (currentTarget == null || !isValidTarget(currentTarget)) {
             // Try to get from queue first
             while (!miningQueue.isEmpty()) {
-                BlockPos queued = miningQueue.poll();
+                BlockPos queued = BlockPos.of(miningQueue.dequeueLong());
                 if (isValidTarget(queued) && isSafeToMine(queued)) {
                     currentTarget = queued;
                     break;
@@ -294,6 +227,7 @@ public class MiningTask {
                     ticksSinceLastProgress++;
                     if (ticksSinceLastProgress > 200) { // 10 seconds without finding anything
                         failed = true;
+                        candidateIndex.close();
                         failReason = "I can't find any more " + targetBlockName + " nearby.";
                     }
                     return;
@@ -338,7 +272,7 @@ public class MiningTask {
         if (distance > 4.0) {
             // Too far, pathfind to it
             if (companion.getNavigation().isDone()) {
-                companion.getNavigation().moveTo(
+                companion.getNavigationManager().moveTo(
                     currentTarget.getX() + 0.5,
                     currentTarget.getY(),
                     currentTarget.getZ() + 0.5,
@@ -348,7 +282,7 @@ public class MiningTask {
             ticksAtCurrentBlock = 0;
         } else if (distance > 2.5) {
             // Getting close, keep moving
-            companion.getNavigation().moveTo(
+            companion.getNavigationManager().moveTo(
                 currentTarget.getX() + 0.5,
                 currentTarget.getY(),
                 currentTarget.getZ() + 0.5,
@@ -418,7 +352,7 @@ public class MiningTask {
                 for (int i = 1; i < tree.size() && miningQueue.size() < 64; i++) {
                     BlockPos pos = tree.get(i);
                     if (isSafeToMine(pos)) {
-                        miningQueue.add(pos);
+                        miningQueue.enqueue(pos.asLong());
                     }
                 }
                 LLMoblings.LOGGER.info("[{}] Tree felling: {} blocks queued",
@@ -436,7 +370,7 @@ public class MiningTask {
                 for (int i = 1; i < vein.size(); i++) {
                     BlockPos pos = vein.get(i);
                     if (isSafeToMine(pos)) {
-                        miningQueue.add(pos);
+                        miningQueue.enqueue(pos.asLong());
                     }
                 }
                 LLMoblings.LOGGER.info("[{}] Vein mining: {} blocks queued",
@@ -478,53 +412,16 @@ public class MiningTask {
     }
 
     private BlockPos findNearestTargetBlock() {
-        BlockPos companionPos = companion.blockPosition();
-        BlockPos nearest = null;
-        double nearestDist = Double.MAX_VALUE;
-
-        // Limit search radius to loaded chunks (32 blocks from center)
-        int effectiveRadius = Math.min(searchRadius, ChunkLoadingManager.getWorkingRadius());
-
-        // Search in expanding shells for efficiency
-        for (int radius = 1; radius <= effectiveRadius; radius++) {
-            for (int x = -radius; x <= radius; x++) {
-                for (int y = -radius; y <= radius; y++) {
-                    for (int z = -radius; z <= radius; z++) {
-                        // Only check outer shell of this radius
-                        if (Math.abs(x) != radius && Math.abs(y) != radius && Math.abs(z) != radius) {
-                            continue;
-                        }
-
-                        BlockPos checkPos = companionPos.offset(x, y, z);
-
-                        // Skip blocks outside loaded chunks
-                        if (!ChunkLoadingManager.isBlockInLoadedChunks(companion, checkPos)) {
-                            continue;
-                        }
-
-                        BlockState state = companion.level().getBlockState(checkPos);
-
-                        if (targetBlocks.contains(state.getBlock())) {
-                            double dist = companionPos.distSqr(checkPos);
-                            if (dist < nearestDist) {
-                                // Check if safe to mine and reachable
-                                if (isSafeToMine(checkPos) && isReachable(checkPos)) {
-                                    nearest = checkPos;
-                                    nearestDist = dist;
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-
-            // If we found something in this shell, return it
-            if (nearest != null) {
-                return nearest;
-            }
+        // Search the area once in the background; after that the index follows block changes
+        BlockPos from = companion.blockPosition();
+        if (candidateIndex.needsRebuild(from)) {
+            // Limit search radius to loaded chunks (32 blocks from center)
+            candidateIndex.rebuild(from, Math.min(searchRadius, ChunkLoadingManager.getWorkingRadius()));
         }
 
-        return nearest;
+        return candidateIndex.pollBest(from,
+                pos -> isValidTarget(pos) && ChunkLoadingManager.isBlockInLoadedChunks(companion, pos)
+                        && isSafeToMine(pos) && isReachable(pos));
     }
 
     private boolean isReachable(BlockPos pos) {
@@ -588,7 +485,7 @@ public class MiningTask {
 
     private void pickupNearbyItems() {
         AABB pickupBox = companion.getBoundingBox().inflate(3.0);
-        List<ItemEntity> items = companion.level().getEntitiesOfClass(ItemEntity.class, pickupBox);
+        List<ItemEntity> items = EntitySnapshot.of(companion.level()).query(ItemEntity.class, pickupBox);
 
         for (ItemEntity item : items) {
             if (item.isAlive() && !item.hasPickUpDelay()) {
@@ -606,6 +503,18 @@ public class MiningTask {
         }
     }
 
+    /**
+     * Abandon the task: stop the area survey and release the candidate index so it stops
+     * following block events. Safe to call more than once.
+     */
+    public void cancel() {
+        for (ScanJob<?> scan : setupScans) {
+            scan.cancel();
+        }
+        setupScans.clear();
+        candidateIndex.close();
+    }
+
     public boolean isCompleted() {
         return completed;
     }
@@ -630,6 +539,25 @@ public class MiningTask {
         return targetBlockName;
     }
 
+    /**
+     * True while the initial area survey is still running.
+     */
+    public boolean isScanning() {
+        return !setupScans.isEmpty();
+    }
+
+    /**
+     * Progress of the initial area survey, 0 to 1.
+     */
+    public float getScanProgress() {
+        if (setupScans.isEmpty()) {
+            return 1.0f;
+        }
+        int total = setupScanCount;
+        int done = total - setupScans.size();
+        return (done + setupScans.peek().getProgress()) / total;
+    }
+
     public BlockPos getCurrentTarget() {
         return currentTarget;
     }
@@ -0,0 +1,153 @@
+package com.gblfxt.llmoblings.ai;
+
+import com.gblfxt.llmoblings.entity.CompanionEntity;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.ai.navigation.PathNavigation;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.pathfinder.Node;
+import net.minecraft.world.level.pathfinder.Path;
+import net.minecraft.world.level.pathfinder.PathComputationType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Front for a companion's path navigation that avoids computing paths it already has.
+ * Behaviors can call {@link #moveTo} every tick and a new path is only searched for when:
+ * - chasing an entity that has moved well away from where the current path ends (the
+ *   allowance grows with distance, and with the AI slowdown while no player is near)
+ * - heading somewhere other than where the current path goes
+ * - the current path is finished or was dropped as stuck
+ *
+ * Longer paths are also remembered by start and destination, so trips that keep repeating
+ * (home, storage, the work site) reuse a stored path instead of searching again, as long as it
+ * starts where the companion is, isn't too old, and every block along it is still passable.
+ *
+ * Server thread only.
+ */
+public class NavigationManager {
+
+    // Chasing: repath once the target is this far from the path's end, or this share of the distance
+    private static final double MIN_REPATH_DISTANCE = 1.5;
+    private static final double REPATH_FRACTION = 0.15;
+
+    // Stored paths: only ones worth storing, only a few, and not for long
+    private static final int MIN_STORED_NODES = 12;
+    private static final int MAX_STORED_PATHS = 12;
+    private static final int STORED_PATH_TICKS = 1200;
+    private static final int START_TOLERANCE_SQR = 2 * 2;
+
+    private record StoredPath(BlockPos start, BlockPos target, List<Node> nodes, boolean reaches, int storedAt) {}
+
+    private final CompanionEntity companion;
+    private final Deque<StoredPath> stored = new ArrayDeque<>();
+    private Entity chasing = null;
+
+    public NavigationManager(CompanionEntity companion) {
+        this.companion = companion;
+    }
+
+    /**
+     * Move towards an entity, keeping the current path while it still ends near the entity.
+     */
+    public boolean moveTo(Entity target, double speed) {
+        PathNavigation navigation = companion.getNavigation();
+        Path current = navigation.getPath();
+
+        if (target == chasing && current != null && !current.isDone() && current.getTarget() != null) {
+            double drift = Math.sqrt(current.getTarget().distToCenterSqr(target.position()));
+            double allowance = Math.max(MIN_REPATH_DISTANCE, companion.distanceTo(target) * REPATH_FRACTION)
+                    * companion.getAiDetail().slowdown();
+            if (drift <= allowance) {
+                navigation.setSpeedModifier(speed);
+                return true;
+            }
+        }
+
+        chasing = target;
+        return navigation.moveTo(target, speed);
+    }
+
+    /**
+     * Move to a position, keeping the current path if it already goes there and reusing a
+     * stored one from here if there is one.
+     */
+    public boolean moveTo(double x, double y, double z, double speed) {
+        PathNavigation navigation = companion.getNavigation();
+        BlockPos destination = BlockPos.containing(x, y, z);
+        Path current = navigation.getPath();
+        chasing = null;
+
+        if (current != null && !current.isDone() && destination.equals(current.getTarget())) {
+            navigation.setSpeedModifier(speed);
+            return true;
+        }
+
+        Path path = findStored(destination);
+        if (path == null) {
+            path = navigation.createPath(destination, 1);
+            if (path == null) {
+                return false;
+            }
+            store(destination, path);
+        }
+        return navigation.moveTo(path, speed);
+    }
+
+    // ========== STORED PATHS ==========
+
+    private Path findStored(BlockPos destination) {
+        BlockPos from = companion.blockPosition();
+        Iterator<StoredPath> it = stored.iterator();
+        while (it.hasNext()) {
+            StoredPath entry = it.next();
+            if (companion.tickCount - entry.storedAt() > STORED_PATH_TICKS) {
+                it.remove();
+                continue;
+            }
+            if (!entry.target().equals(destination) || entry.start().distSqr(from) > START_TOLERANCE_SQR) {
+                continue;
+            }
+            if (!stillPassable(entry.nodes())) {
+                it.remove();
+                return null;
+            }
+            return new Path(new ArrayList<>(entry.nodes()), entry.target(), entry.reaches());
+        }
+        return null;
+    }
+
+    private void store(BlockPos destination, Path path) {
+        if (path.getNodeCount() < MIN_STORED_NODES) {
+            return;
+        }
+        List<Node> nodes = new ArrayList<>(path.getNodeCount());
+        for (int i = 0; i < path.getNodeCount(); i++) {
+            nodes.add(path.getNode(i));
+        }
+
+        BlockPos start = companion.blockPosition();
+        stored.removeIf(entry -> entry.target().equals(destination) && entry.start().equals(start));
+        stored.addFirst(new StoredPath(start, destination, List.copyOf(nodes), path.canReach(), companion.tickCount));
+        while (stored.size() > MAX_STORED_PATHS) {
+            stored.removeLast();
+        }
+    }
+
+    private boolean stillPassable(List<Node> nodes) {
+        Level level = companion.level();
+        for (Node node : nodes) {
+            BlockPos pos = node.asBlockPos();
+            if (!level.isLoaded(pos)
+                    || !level.getBlockState(pos).isPathfindable(PathComputationType.LAND)
+                    || !level.getBlockState(pos.above()).isPathfindable(PathComputationType.LAND)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
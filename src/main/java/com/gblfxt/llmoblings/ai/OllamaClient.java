@@ -13,20 +13,68 @@ import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class OllamaClient {
     private static final Gson GSON = new Gson();
     private static volatile HttpClient httpClient;
     private static final Object HTTP_CLIENT_LOCK = new Object();
 
+    // Live (player-facing) request tracking, so background work only runs when the LLM is idle
+    private static final AtomicInteger activeLiveRequests = new AtomicInteger();
+    private static volatile long lastLiveRequestMillis = 0;
+    private static final long IDLE_GRACE_MILLIS = 5000;
+
+    // At most one background request in flight server-wide; cancelled as soon as a live request starts
+    private static final Object BACKGROUND_LOCK = new Object();
+    private static CompletableFuture<HttpResponse<String>> backgroundRequest = null;
+
     private final List<ChatMessage> conversationHistory = new ArrayList<>();
     private final String systemPrompt;
+    private volatile CompanionMemory memory;
+
+    /**
+     * Who a request is billed to (see {@link TokenBudget}) and the coarse world-state and
+     * personality signature its cached response must match. Captured when the message arrives
+     * and carried through every call made for it, so a later message can't change either.
+     */
+    public record RequestContext(UUID requester, String usageKey, String cacheSignature) {}
 
     public OllamaClient(String companionName) {
         this.systemPrompt = buildSystemPrompt(companionName);
     }
 
+    /**
+     * Estimate the token cost of sending this message with the current history.
+     */
+    public int estimateRequestTokens(String userMessage) {
+        int chars = systemPrompt.length() + userMessage.length();
+        int startIdx = Math.max(0, conversationHistory.size() - 20);
+        for (int i = startIdx; i < conversationHistory.size(); i++) {
+            chars += conversationHistory.get(i).content().length();
+        }
+        return TokenBudget.estimate(chars, 256);
+    }
+
+    /**
+     * Interpret a player message with the keyword parser only, without calling the LLM.
+     * Used when a request is over budget. The player's own text is not echoed back.
+     */
+    public CompanionAction keywordFallback(String userMessage) {
+        CompanionAction parsed = parseFromKeywords(userMessage);
+        return new CompanionAction(parsed.getAction(), null, parsed.getData());
+    }
+
+    /**
+     * Attach the long-term memory store used to enrich prompts with relevant past events.
+     */
+    public void setMemory(CompanionMemory memory) {
+        this.memory = memory;
+    }
+
     private static HttpClient getHttpClient() {
         if (httpClient == null) {
             synchronized (HTTP_CLIENT_LOCK) {
@@ -214,14 +262,18 @@ SOPHISTICATED BACKPACKS (if mod is installed):
 """.formatted(companionName);
     }
 
-    public CompletableFuture<CompanionAction> chat(String userMessage) {
+    /**
+     * Send a message and parse the reply, spending an admitted reservation.
+     */
+    public CompletableFuture<CompanionAction> chat(String userMessage, RequestContext context,
+                                                   TokenBudget.Reservation reservation) {
         return CompletableFuture.supplyAsync(() -> {
             try {
                 // Add user message to history
                 conversationHistory.add(new ChatMessage("user", userMessage));
 
-                // Build request
-                String response = sendChatRequest();
+                // Build request (served from cache when the same prompt was seen recently)
+                String response = cachedOrSend(userMessage, cacheKey(userMessage, context), context, reservation);
 
                 // Add assistant response to history
                 conversationHistory.add(new ChatMessage("assistant", response));
@@ -231,11 +283,38 @@ SOPHISTICATED BACKPACKS (if mod is installed):
             } catch (Exception e) {
                 LLMoblings.LOGGER.error("Ollama chat error: ", e);
                 return new CompanionAction("idle", "Sorry, I'm having trouble thinking right now.");
+            } finally {
+                reservation.release();  // Nothing was charged if the cache answered or the call failed
             }
         });
     }
 
-    private String sendChatRequest() throws Exception {
+    /**
+     * Response cache key for the message just added to the history, or null if the reply
+     * shouldn't be cached. Keyed on the normalized message and the coarse cache signature only;
+     * skipped while an exchange is still pending (an observation or unanswered turn right
+     * before it), since the reply would depend on that.
+     */
+    private String cacheKey(String userMessage, RequestContext context) {
+        int size = conversationHistory.size();
+        if (size >= 2 && !"assistant".equals(conversationHistory.get(size - 2).role())) {
+            return null;
+        }
+        return ResponseCache.key(systemPrompt, context.cacheSignature(), userMessage);
+    }
+
+    /**
+     * Serve the reply from the cache when there is a key, otherwise send it. Memories are
+     * recalled only when the request actually goes out, so a hit skips the embed call.
+     */
+    private String cachedOrSend(String userMessage, String key, RequestContext context,
+                                TokenBudget.Reservation reservation) throws Exception {
+        Callable<String> send = () -> sendChatRequest(recallMemories(userMessage), context, reservation);
+        return key != null ? ResponseCache.getOrCompute(key, send) : send.call();
+    }
+
+    private String sendChatRequest(String memoryContext, RequestContext context,
+                                   TokenBudget.Reservation reservation) throws Exception {
         String host = Config.OLLAMA_HOST.get();
         int port = Config.OLLAMA_PORT.get();
         String model = Config.OLLAMA_MODEL.get();
@@ -251,6 +330,14 @@ SOPHISTICATED BACKPACKS (if mod is installed):
         systemMsg.addProperty("content", systemPrompt);
         messages.add(systemMsg);
 
+        // Relevant long-term memories (not kept in history, retrieved fresh per request)
+        if (memoryContext != null && !memoryContext.isEmpty()) {
+            JsonObject memoryMsg = new JsonObject();
+            memoryMsg.addProperty("role", "system");
+            memoryMsg.addProperty("content", memoryContext);
+            messages.add(memoryMsg);
+        }
+
         // Conversation history (keep last 20 messages for context)
         int startIdx = Math.max(0, conversationHistory.size() - 20);
         for (int i = startIdx; i < conversationHistory.size(); i++) {
@@ -281,7 +368,15 @@ SOPHISTICATED BACKPACKS (if mod is installed):
                 .POST(HttpRequest.BodyPublishers.ofString(GSON.toJson(requestBody)))
                 .build();
 
-        HttpResponse<String> response = getHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response;
+        activeLiveRequests.incrementAndGet();
+        cancelBackgroundRequest();
+        try {
+            response = getHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+        } finally {
+            activeLiveRequests.decrementAndGet();
+            lastLiveRequestMillis = System.currentTimeMillis();
+        }
 
         if (response.statusCode() != 200) {
             throw new RuntimeException("Ollama request failed: " + response.statusCode() + " - " + response.body());
@@ -290,6 +385,13 @@ SOPHISTICATED BACKPACKS (if mod is installed):
         String responseBody = response.body();
         JsonObject json = GSON.fromJson(responseBody, JsonObject.class);
 
+        // Charge actual usage reported by Ollama (fall back to an estimate)
+        int usedTokens = json.has("prompt_eval_count") || json.has("eval_count")
+                ? (json.has("prompt_eval_count") ? json.get("prompt_eval_count").getAsInt() : 0)
+                        + (json.has("eval_count") ? json.get("eval_count").getAsInt() : 0)
+                : TokenBudget.estimate(GSON.toJson(messages).length(), 256);
+        reservation.settle(context.usageKey(), usedTokens);
+
         if (json.has("message") && json.getAsJsonObject("message").has("content")) {
             return json.getAsJsonObject("message").get("content").getAsString();
         }
@@ -693,19 +795,25 @@ SOPHISTICATED BACKPACKS (if mod is installed):
     }
 
     /**
-     * Blocking version of chat() for use inside the async action loop.
-     * Prepends world state context to the user message.
+     * Blocking version of chat() for use inside the async action loop, with world state context
+     * prepended to the user message and optional response caching. Only the first turn of an
+     * action loop should be cacheable - later turns depend on the observations fed back in.
+     * Each turn spends its own reservation.
      */
-    public CompanionAction chatBlocking(String userMessage, String worldStateContext) {
+    public CompanionAction chatBlocking(String userMessage, String worldStateContext, boolean cacheable,
+                                        RequestContext context, TokenBudget.Reservation reservation) {
         try {
             String fullMessage = worldStateContext + "\n" + userMessage;
             conversationHistory.add(new ChatMessage("user", fullMessage));
-            String response = sendChatRequest();
+            String response = cachedOrSend(userMessage, cacheable ? cacheKey(userMessage, context) : null,
+                    context, reservation);
             conversationHistory.add(new ChatMessage("assistant", response));
             return parseResponse(response);
         } catch (Exception e) {
             LLMoblings.LOGGER.error("Ollama chatBlocking error: ", e);
             return new CompanionAction("idle", "Sorry, I'm having trouble thinking right now.");
+        } finally {
+            reservation.release();
         }
     }
 
@@ -743,5 +851,149 @@ SOPHISTICATED BACKPACKS (if mod is installed):
         conversationHistory.clear();
     }
 
+    /**
+     * Look up memories relevant to the message and format them as a prompt section.
+     * Returns an empty string when memory is disabled or nothing relevant is found.
+     */
+    private String recallMemories(String userMessage) {
+        CompanionMemory mem = memory;
+        int count = Config.MEMORY_RECALL_COUNT.get();
+        if (mem == null || count <= 0 || !Config.MEMORY_ENABLED.get()) {
+            return "";
+        }
+
+        List<String> recalled = mem.recall(userMessage, count);
+        if (recalled.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder sb = new StringBuilder("[MEMORIES] Things you remember that may be relevant:");
+        for (String entry : recalled) {
+            sb.append("\n- ").append(entry);
+        }
+        return sb.toString();
+    }
+
+    // ========== BACKGROUND GENERATION ==========
+
+    /**
+     * True when no live request is in flight and none has finished in the last few seconds.
+     */
+    public static boolean isIdle() {
+        return activeLiveRequests.get() == 0
+                && System.currentTimeMillis() - lastLiveRequestMillis > IDLE_GRACE_MILLIS;
+    }
+
+    /**
+     * Run a low-priority, stateless generation request (no history, no system prompt).
+     * Returns null if the LLM is busy or another background request is already running.
+     * The request is aborted if a live chat request starts while it is in flight.
+     */
+    public static CompletableFuture<String> generateBackground(String prompt, int maxTokens) {
+        if (!isIdle()) {
+            return null;
+        }
+        TokenBudget.Reservation reservation =
+                TokenBudget.tryAdmit(null, TokenBudget.estimate(prompt.length(), maxTokens));
+        if (reservation == null) {
+            return null;
+        }
+
+        String host = Config.OLLAMA_HOST.get();
+        int port = Config.OLLAMA_PORT.get();
+        String url = String.format("http://%s:%d/api/generate", host, port);
+
+        JsonObject requestBody = new JsonObject();
+        requestBody.addProperty("model", Config.OLLAMA_MODEL.get());
+        requestBody.addProperty("prompt", prompt);
+        requestBody.addProperty("stream", false);
+
+        JsonObject options = new JsonObject();
+        options.addProperty("temperature", 1.0);
+        options.addProperty("num_predict", maxTokens);
+        requestBody.add("options", options);
+
+        int timeout = Config.OLLAMA_TIMEOUT.get();
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(Duration.ofSeconds(timeout))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(GSON.toJson(requestBody)))
+                .build();
+
+        CompletableFuture<HttpResponse<String>> future;
+        synchronized (BACKGROUND_LOCK) {
+            // A live request may have started since the idle check. Live requests count themselves
+            // before they take this lock to cancel us, so checking here can't miss one.
+            if (activeLiveRequests.get() != 0 || (backgroundRequest != null && !backgroundRequest.isDone())) {
+                reservation.release();
+                return null;
+            }
+            future = getHttpClient().sendAsync(request, HttpResponse.BodyHandlers.ofString());
+            backgroundRequest = future;
+        }
+
+        return future.thenApply(response -> {
+            if (response.statusCode() != 200) {
+                throw new RuntimeException("Ollama background request failed: " + response.statusCode());
+            }
+            JsonObject json = GSON.fromJson(response.body(), JsonObject.class);
+            int usedTokens = (json.has("prompt_eval_count") ? json.get("prompt_eval_count").getAsInt() : 0)
+                    + (json.has("eval_count") ? json.get("eval_count").getAsInt() : 0);
+            reservation.settle(null, usedTokens);
+            return json.has("response") ? json.get("response").getAsString() : "";
+        }).whenComplete((result, error) -> reservation.release());  // Failed or cancelled: nothing used
+    }
+
+    private static void cancelBackgroundRequest() {
+        synchronized (BACKGROUND_LOCK) {
+            if (backgroundRequest != null && !backgroundRequest.isDone()) {
+                backgroundRequest.cancel(true);
+                LLMoblings.LOGGER.debug("Cancelled background LLM request for live request");
+            }
+            backgroundRequest = null;
+        }
+    }
+
+    /**
+     * Fetch an embedding vector for the given text from Ollama's /api/embed endpoint.
+     * Blocking - call from a background thread.
+     */
+    public static float[] embed(String text) throws Exception {
+        String host = Config.OLLAMA_HOST.get();
+        int port = Config.OLLAMA_PORT.get();
+        String url = String.format("http://%s:%d/api/embed", host, port);
+
+        JsonObject requestBody = new JsonObject();
+        requestBody.addProperty("model", Config.OLLAMA_EMBED_MODEL.get());
+        requestBody.addProperty("input", text);
+
+        int timeout = Config.OLLAMA_TIMEOUT.get();
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(Duration.ofSeconds(timeout))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(GSON.toJson(requestBody)))
+                .build();
+
+        HttpResponse<String> response = getHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+
+        if (response.statusCode() != 200) {
+            throw new RuntimeException("Ollama embed request failed: " + response.statusCode() + " - " + response.body());
+        }
+
+        JsonObject json = GSON.fromJson(response.body(), JsonObject.class);
+        if (!json.has("embeddings") || json.getAsJsonArray("embeddings").isEmpty()) {
+            throw new RuntimeException("Ollama embed response contained no embeddings");
+        }
+
+        JsonArray vector = json.getAsJsonArray("embeddings").get(0).getAsJsonArray();
+        float[] result = new float[vector.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = vector.get(i).getAsFloat();
+        }
+        return result;
+    }
+
     public record ChatMessage(String role, String content) {}
 }
@@ -0,0 +1,288 @@
+package com.gblfxt.llmoblings.ai;
+
+import com.gblfxt.llmoblings.LLMoblings;
+import com.gblfxt.llmoblings.SnapshotScanner;
+import com.gblfxt.llmoblings.WorldSnapshot;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectHeapPriorityQueue;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.level.BlockEvent;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+/**
+ * Every block a mining task is looking for in its working area, kept for the life of the task.
+ *
+ * The area is searched once, in the background over a {@link WorldSnapshot}; after that the
+ * index follows block place/break events instead of searching again after every vein.
+ * Candidates come out cheapest first by a path-cost estimate (digging down and climbing cost
+ * more than walking, buried blocks more than exposed ones). Candidates the task turns down as
+ * unsafe or unreachable are set aside and only reconsidered when a block next to them opens up
+ * or the companion has moved on far enough to re-sort, so the same rejects aren't re-checked on
+ * every search.
+ *
+ * Server thread only, apart from the background search itself.
+ */
+@EventBusSubscriber(modid = LLMoblings.MOD_ID)
+public class OreCandidateIndex {
+
+    // Re-sort the queue once the companion has moved this far from where it was last sorted
+    private static final int REORDER_DISTANCE_SQR = 8 * 8;
+    // Extra cost for a candidate with no air next to it (has to be tunnelled to)
+    private static final long BURIED_PENALTY = 64;
+
+    private static final Set<OreCandidateIndex> active = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private final Level level;
+    private final Set<Block> targets;
+
+    private final LongOpenHashSet candidates = new LongOpenHashSet();
+    private final LongOpenHashSet buried = new LongOpenHashSet();
+    private final LongOpenHashSet rejected = new LongOpenHashSet();
+    // Costs are fixed when queued; a candidate whose cost changes is queued again and the stale entry skipped
+    private ObjectHeapPriorityQueue<Queued> queue = new ObjectHeapPriorityQueue<>(Comparator.comparingLong(Queued::cost));
+    private BlockPos orderedFrom = null;
+
+    // Area covered by the last search
+    private BlockPos center = null;
+    private int radius = 0;
+
+    private CompletableFuture<SnapshotScanner.Result<Scan>> pending = null;
+    private long generation = 0;
+
+    public OreCandidateIndex(Level level, Set<Block> targets) {
+        this.level = level;
+        this.targets = Set.copyOf(targets);
+        active.add(this);
+    }
+
+    // ========== BUILDING ==========
+
+    /**
+     * True if the index covers nothing yet or the companion has left the area it covers.
+     */
+    public boolean needsRebuild(BlockPos from) {
+        if (pending != null) {
+            return false;
+        }
+        return center == null || from.distSqr(center) > (long) (radius / 2) * (radius / 2);
+    }
+
+    /**
+     * Search an area in the background. The current candidates stay usable until it's done.
+     */
+    public void rebuild(BlockPos newCenter, int newRadius) {
+        WorldSnapshot snapshot = WorldSnapshot.capture(level, newCenter, newRadius, newRadius);
+        generation = SnapshotScanner.nextGeneration();
+        pending = SnapshotScanner.submit(generation, snapshot, s -> scan(s, targets, newCenter, newRadius));
+    }
+
+    private static Scan scan(WorldSnapshot snapshot, Set<Block> targets, BlockPos center, int radius) {
+        LongArrayList found = new LongArrayList();
+        LongArrayList buried = new LongArrayList();
+        BlockPos.MutableBlockPos neighbor = new BlockPos.MutableBlockPos();
+
+        snapshot.forEachMatching(state -> targets.contains(state.getBlock()), pos -> {
+            found.add(pos.asLong());
+            boolean exposed = false;
+            for (Direction dir : Direction.values()) {
+                if (snapshot.getBlockState(neighbor.setWithOffset(pos, dir)).isAir()) {
+                    exposed = true;
+                    break;
+                }
+            }
+            if (!exposed) {
+                buried.add(pos.asLong());
+            }
+        });
+        return new Scan(center, radius, found, buried);
+    }
+
+    private void collectScan() {
+        if (pending == null || !pending.isDone()) {
+            return;
+        }
+        SnapshotScanner.Result<Scan> result = pending.exceptionally(e -> null).join();
+        pending = null;
+        if (result == null || result.generation() != generation) {
+            return;  // Failed, or superseded by a newer search
+        }
+
+        Scan scan = result.value();
+        candidates.clear();
+        buried.clear();
+        rejected.clear();
+        candidates.addAll(scan.found());
+        buried.addAll(scan.buried());
+        center = scan.center();
+        radius = scan.radius();
+        orderedFrom = null;  // Force a re-sort
+
+        LLMoblings.LOGGER.debug("Indexed {} mining candidates within {} of {}", candidates.size(), radius, center);
+    }
+
+    // ========== QUERIES ==========
+
+    /**
+     * Take the cheapest candidate the accept check agrees to, or null. Turned-down candidates
+     * are set aside; the returned one is removed since it's about to be mined.
+     */
+    public BlockPos pollBest(BlockPos from, Predicate<BlockPos> accept) {
+        collectScan();
+
+        if (orderedFrom == null || from.distSqr(orderedFrom) > REORDER_DISTANCE_SQR) {
+            reorder(from);
+        }
+
+        while (!queue.isEmpty()) {
+            Queued next = queue.dequeue();
+            long packed = next.pos();
+            if (!candidates.contains(packed)) {
+                continue;  // Mined or rejected since the queue was sorted
+            }
+            if (next.cost() != cost(orderedFrom, packed)) {
+                continue;  // Exposed since it was queued; queued again at its new cost
+            }
+
+            BlockPos pos = BlockPos.of(packed);
+            candidates.remove(packed);
+            if (accept.test(pos)) {
+                return pos;
+            }
+            rejected.add(packed);
+        }
+        return null;
+    }
+
+    private void reorder(BlockPos from) {
+        orderedFrom = from;
+
+        // Give turned-down candidates another chance from the new spot (they may have been unsafe,
+        // unreachable or outside the loaded chunks from the old one)
+        candidates.addAll(rejected);
+        rejected.clear();
+
+        queue = new ObjectHeapPriorityQueue<>(candidates.size(), Comparator.comparingLong(Queued::cost));
+        for (long key : candidates) {
+            enqueue(key);
+        }
+    }
+
+    private void enqueue(long packed) {
+        if (orderedFrom != null) {  // Otherwise the next poll sorts everything anyway
+            queue.enqueue(new Queued(cost(orderedFrom, packed), packed));
+        }
+    }
+
+    /**
+     * Rough path cost: walking distance, with vertical travel (stairs, pillaring) weighted
+     * double and a penalty for blocks that have to be tunnelled to.
+     */
+    private long cost(BlockPos from, long packed) {
+        long dx = BlockPos.getX(packed) - from.getX();
+        long dy = BlockPos.getY(packed) - from.getY();
+        long dz = BlockPos.getZ(packed) - from.getZ();
+        long cost = dx * dx + 4 * dy * dy + dz * dz;
+        return buried.contains(packed) ? cost + BURIED_PENALTY : cost;
+    }
+
+    public int size() {
+        return candidates.size();
+    }
+
+    /**
+     * Stop following block changes. Called when the task ends.
+     */
+    public void close() {
+        active.remove(this);
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    // ========== INCREMENTAL UPDATES ==========
+
+    private boolean covers(BlockPos pos) {
+        return center != null
+                && Math.abs(pos.getX() - center.getX()) <= radius
+                && Math.abs(pos.getY() - center.getY()) <= radius
+                && Math.abs(pos.getZ() - center.getZ()) <= radius;
+    }
+
+    private void onBlockChanged(BlockPos pos, BlockState newState) {
+        if (!covers(pos)) {
+            return;
+        }
+        long packed = pos.asLong();
+        rejected.remove(packed);
+
+        if (targets.contains(newState.getBlock())) {
+            if (candidates.add(packed)) {
+                enqueue(packed);
+            }
+        } else {
+            candidates.remove(packed);
+        }
+
+        // Opening up a block can make its neighbors reachable (or exposed) again
+        if (newState.isAir()) {
+            for (Direction dir : Direction.values()) {
+                long neighbor = BlockPos.offset(packed, dir);
+                boolean exposed = buried.remove(neighbor);
+                if (rejected.remove(neighbor)) {
+                    candidates.add(neighbor);
+                    enqueue(neighbor);
+                } else if (exposed && candidates.contains(neighbor)) {
+                    enqueue(neighbor);  // Cheaper now
+                }
+            }
+        }
+    }
+
+    private static void notifyAll(LevelAccessor accessor, BlockPos pos, BlockState newState) {
+        if (active.isEmpty() || !(accessor instanceof Level changed) || changed.isClientSide()) {
+            return;
+        }
+        for (OreCandidateIndex index : active) {
+            if (index.level == changed) {
+                index.onBlockChanged(pos, newState);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        notifyAll(event.getLevel(), event.getPos(), event.getState());
+    }
+
+    @SubscribeEvent
+    public static void onBlockPlaced(BlockEvent.EntityPlaceEvent event) {
+        notifyAll(event.getLevel(), event.getPos(), event.getPlacedBlock());
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onBlockBroken(BlockEvent.BreakEvent event) {
+        // Fired before removal; only act once nobody has cancelled it
+        notifyAll(event.getLevel(), event.getPos(), Blocks.AIR.defaultBlockState());
+    }
+
+    private record Queued(long cost, long pos) {}
+
+    private record Scan(BlockPos center, int radius, LongArrayList found, LongArrayList buried) {}
+}
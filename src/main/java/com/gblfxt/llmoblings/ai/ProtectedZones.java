@@ -0,0 +1,192 @@
+package com.gblfxt.llmoblings.ai;
+
+import com.gblfxt.llmoblings.BlockCategories;
+import com.gblfxt.llmoblings.LLMoblings;
+import com.gblfxt.llmoblings.ScanJob;
+import com.gblfxt.llmoblings.SnapshotScanner;
+import com.gblfxt.llmoblings.WorldSnapshot;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Areas around base structures (containers, crafting stations, beds, lighting...) that
+ * companions must not dig into. Stored as merged axis-aligned boxes bucketed by chunk column,
+ * so a containment check is one map lookup plus a handful of box tests, no matter how many
+ * chests the base has. Built zones are shared between tasks started in the same area.
+ * Detection runs on a scan worker over a snapshot of the area.
+ */
+public class ProtectedZones {
+
+    // Reuse a scan for tasks started near the same spot within this many ticks
+    private static final long SHARE_TICKS = 1200;
+    private static final int MAX_SHARED = 16;
+
+    private static final Map<String, ProtectedZones> shared = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ProtectedZones> eldest) {
+            return size() > MAX_SHARED;
+        }
+    };
+
+    private final Map<Long, List<Box>> byChunk = new HashMap<>();
+    private final long createdAt;
+    private int boxCount = 0;
+
+    private ProtectedZones(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Scan an area in the background, handing the zones to onComplete when done. Completes on its
+     * first tick if a recent scan of the same area (within SHARE_TICKS) can be shared.
+     */
+    public static ScanJob<ProtectedZones> scanJob(Level level, BlockPos center, int searchRadius, int protectionRadius,
+                                                  Consumer<ProtectedZones> onComplete) {
+        String key = level.dimension().location() + "|" + new ChunkPos(center).toLong() + "|" + searchRadius + "|" + protectionRadius;
+        long now = level.getGameTime();
+
+        ProtectedZones cached = shared.get(key);
+        if (cached != null && now - cached.createdAt < SHARE_TICKS) {
+            return new ScanJob<>("protected zones", () -> cached, onComplete);
+        }
+
+        // Copy the area on this thread, work out the boxes on a scan worker
+        AtomicReference<CompletableFuture<SnapshotScanner.Result<ProtectedZones>>> analysis = new AtomicReference<>();
+        AtomicReference<ProtectedZones> built = new AtomicReference<>();
+        ScanJob<ProtectedZones> job = new ScanJob<>("protected zones", built::get, onComplete);
+
+        job.then(() -> {
+            WorldSnapshot snapshot = WorldSnapshot.capture(level, center, searchRadius, 10);
+            analysis.set(SnapshotScanner.submit(SnapshotScanner.nextGeneration(), snapshot,
+                    s -> build(s, protectionRadius, now)));
+        });
+        job.await(analysis::get);
+        job.then(() -> {
+            ProtectedZones zones;
+            try {
+                zones = analysis.get().join().value();
+            } catch (Exception e) {
+                zones = new ProtectedZones(now);  // Scan failed - protect nothing rather than stall
+            }
+            built.set(zones);
+            shared.put(key, zones);
+            LLMoblings.LOGGER.debug("Identified {} protected zone boxes", zones.boxCount);
+        });
+        return job;
+    }
+
+    /**
+     * Merge boxes around containers and important blocks (crafting stations, beds, lighting...)
+     * found in a snapshot. Runs on a scan worker.
+     */
+    private static ProtectedZones build(WorldSnapshot snapshot, int protectionRadius, long now) {
+        List<Box> boxes = new ArrayList<>();
+        for (BlockPos pos : snapshot.getContainers()) {
+            addMerged(boxes, Box.around(pos, protectionRadius));
+        }
+        snapshot.forEachMatching(state -> BlockCategories.has(state, BlockCategories.IMPORTANT),
+                pos -> addMerged(boxes, Box.around(pos, protectionRadius)));
+
+        ProtectedZones zones = new ProtectedZones(now);
+        for (Box box : boxes) {
+            zones.bucket(box);
+        }
+        zones.boxCount = boxes.size();
+        return zones;
+    }
+
+    /**
+     * Add a box, merging with existing boxes whenever their bounding box covers exactly the
+     * blocks the two cover between them (one inside the other, or same extents on two axes and
+     * touching or overlapping on the third), so a merge never protects a block neither box did.
+     * Merges cascade until nothing else fits.
+     */
+    private static void addMerged(List<Box> boxes, Box box) {
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            for (int i = 0; i < boxes.size(); i++) {
+                Box other = boxes.get(i);
+                if (other.containsBox(box)) {
+                    return;
+                }
+                Box union = box.union(other);
+                if (union.volume() == box.volume() + other.volume() - box.overlap(other)) {
+                    boxes.remove(i);
+                    box = union;
+                    merged = true;
+                    break;
+                }
+            }
+        }
+        boxes.add(box);
+    }
+
+    private void bucket(Box box) {
+        for (int cx = box.minX() >> 4; cx <= box.maxX() >> 4; cx++) {
+            for (int cz = box.minZ() >> 4; cz <= box.maxZ() >> 4; cz++) {
+                byChunk.computeIfAbsent(ChunkPos.asLong(cx, cz), k -> new ArrayList<>()).add(box);
+            }
+        }
+    }
+
+    public boolean contains(BlockPos pos) {
+        List<Box> boxes = byChunk.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        if (boxes == null) {
+            return false;
+        }
+        for (Box box : boxes) {
+            if (box.contains(pos)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getBoxCount() {
+        return boxCount;
+    }
+
+    private record Box(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        static Box around(BlockPos pos, int radius) {
+            return new Box(pos.getX() - radius, pos.getY() - radius, pos.getZ() - radius,
+                    pos.getX() + radius, pos.getY() + radius, pos.getZ() + radius);
+        }
+
+        long volume() {
+            return (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+        }
+
+        Box union(Box o) {
+            return new Box(Math.min(minX, o.minX), Math.min(minY, o.minY), Math.min(minZ, o.minZ),
+                    Math.max(maxX, o.maxX), Math.max(maxY, o.maxY), Math.max(maxZ, o.maxZ));
+        }
+
+        long overlap(Box o) {
+            long x = Math.min(maxX, o.maxX) - Math.max(minX, o.minX) + 1;
+            long y = Math.min(maxY, o.maxY) - Math.max(minY, o.minY) + 1;
+            long z = Math.min(maxZ, o.maxZ) - Math.max(minZ, o.minZ) + 1;
+            return x > 0 && y > 0 && z > 0 ? x * y * z : 0;
+        }
+
+        boolean containsBox(Box o) {
+            return o.minX >= minX && o.maxX <= maxX && o.minY >= minY && o.maxY <= maxY
+                    && o.minZ >= minZ && o.maxZ <= maxZ;
+        }
+
+        boolean contains(BlockPos pos) {
+            return pos.getX() >= minX && pos.getX() <= maxX && pos.getY() >= minY && pos.getY() <= maxY
+                    && pos.getZ() >= minZ && pos.getZ() <= maxZ;
+        }
+    }
+}
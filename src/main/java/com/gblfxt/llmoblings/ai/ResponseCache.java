@@ -0,0 +1,136 @@
+package com.gblfxt.llmoblings.ai;
+
+import com.gblfxt.llmoblings.Config;
+import com.gblfxt.llmoblings.LLMoblings;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-wide LRU cache of raw LLM responses for repeated prompts.
+ * Keys combine the companion's system prompt, a coarse world-state signature and the
+ * normalized player message, so "@Sam follow me" asked twice in the same circumstances
+ * only hits the backend once. Identical requests already in flight are collapsed
+ * onto the same backend call.
+ */
+public class ResponseCache {
+
+    private static final Map<String, CachedResponse> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private static final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong collapsed = new AtomicLong();
+
+    /**
+     * Build a cache key. The system prompt is hashed since it differs per companion name.
+     */
+    public static String key(String systemPrompt, String context, String message) {
+        return systemPrompt.hashCode() + "|" + context + "|" + normalize(message);
+    }
+
+    /**
+     * Return a cached response for the key, join an identical in-flight request,
+     * or run the loader and cache its result.
+     */
+    public static String getOrCompute(String key, Callable<String> loader) throws Exception {
+        int maxSize = Config.RESPONSE_CACHE_SIZE.get();
+        if (maxSize <= 0) {
+            return loader.call();
+        }
+
+        String cached = get(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            LLMoblings.LOGGER.debug("Response cache hit ({}% hit ratio)", String.format("%.1f", getHitRatio() * 100));
+            return cached;
+        }
+
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            collapsed.incrementAndGet();
+            return existing.join();
+        }
+
+        misses.incrementAndGet();
+        try {
+            String response = loader.call();
+            put(key, response, maxSize);
+            pending.complete(response);
+            return response;
+        } catch (Exception e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    private static String get(String key) {
+        long ttlMillis = Config.RESPONSE_CACHE_TTL_SECONDS.get() * 1000L;
+        synchronized (cache) {
+            CachedResponse entry = cache.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() - entry.createdMillis() > ttlMillis) {
+                cache.remove(key);
+                return null;
+            }
+            return entry.response();
+        }
+    }
+
+    private static void put(String key, String response, int maxSize) {
+        synchronized (cache) {
+            cache.put(key, new CachedResponse(response, System.currentTimeMillis()));
+            var it = cache.entrySet().iterator();
+            while (cache.size() > maxSize && it.hasNext()) {
+                it.next();
+                it.remove();  // Least recently used first
+            }
+        }
+    }
+
+    /**
+     * Lowercase, strip punctuation and collapse whitespace so trivial variations share an entry.
+     */
+    private static String normalize(String message) {
+        return message.toLowerCase()
+                .replaceAll("[^a-z0-9_\\s]", "")
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+
+    public static void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Fraction of requests served without a new backend call (cache hits and collapsed requests).
+     */
+    public static double getHitRatio() {
+        long served = hits.get() + collapsed.get();
+        long total = served + misses.get();
+        return total == 0 ? 0 : (double) served / total;
+    }
+
+    public static long getHits() { return hits.get(); }
+    public static long getMisses() { return misses.get(); }
+    public static long getCollapsed() { return collapsed.get(); }
+
+    public static int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private record CachedResponse(String response, long createdMillis) {}
+}
@@ -1,5 +1,6 @@
 package com.gblfxt.llmoblings.ai;
 
+import com.gblfxt.llmoblings.EntitySnapshot;
 import com.gblfxt.llmoblings.entity.CompanionEntity;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
@@ -363,7 +364,7 @@ public class SpatialAwareness {
         
         // Nearby mobs
         AABB searchBox = new AABB(pos).inflate(mobScanRadius);
-        List<LivingEntity> nearbyEntities = level.getEntitiesOfClass(LivingEntity.class, searchBox,
+        List<LivingEntity> nearbyEntities = EntitySnapshot.of(level).query(LivingEntity.class, searchBox,
             e -> e != entity && !(e instanceof Player) && !(e instanceof CompanionEntity));
         
         // Group and count mobs
@@ -0,0 +1,198 @@
+package com.gblfxt.llmoblings.ai;
+
+import com.gblfxt.llmoblings.Config;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LLM token accounting and admission control.
+ * Each player and the server as a whole get a token bucket refilled at a configured
+ * tokens-per-minute rate. Admitting a request reserves its estimated cost in both buckets,
+ * so concurrent requests can't all pass the same check; once Ollama reports the actual
+ * prompt+eval tokens the reservation is settled to that, so an expensive request leaves the
+ * bucket in debt until it refills. Every LLM call needs its own reservation.
+ */
+public class TokenBudget {
+
+    // Rough chars-per-token ratio used for estimates before Ollama reports real counts
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private static final Bucket serverBucket = new Bucket();
+    private static final Map<UUID, Bucket> playerBuckets = new ConcurrentHashMap<>();
+    private static final Map<String, Usage> companionUsage = new ConcurrentHashMap<>();
+    private static final Map<UUID, Usage> playerUsage = new ConcurrentHashMap<>();
+    private static final Usage serverUsage = new Usage();
+
+    /**
+     * Estimate tokens for a prompt of the given size plus the maximum response length.
+     */
+    public static int estimate(int promptChars, int maxResponseTokens) {
+        return promptChars / CHARS_PER_TOKEN + maxResponseTokens;
+    }
+
+    /**
+     * Reserve the estimated cost of a request from this player in the player and server
+     * budgets, or return null if either lacks headroom. A null player (background work) is only
+     * checked against the server budget. Settle or release the reservation when done.
+     */
+    public static synchronized Reservation tryAdmit(UUID player, int estimatedTokens) {
+        int serverLimit = Config.SERVER_TOKENS_PER_MINUTE.get();
+        if (serverLimit > 0 && serverBucket.available(serverLimit) < estimatedTokens) {
+            return null;
+        }
+
+        int playerLimit = Config.PLAYER_TOKENS_PER_MINUTE.get();
+        if (player != null && playerLimit > 0
+                && getBucket(player).available(playerLimit) < estimatedTokens) {
+            return null;
+        }
+
+        adjust(player, estimatedTokens);
+        return new Reservation(player, estimatedTokens);
+    }
+
+    private static void adjust(UUID player, int tokens) {
+        serverBucket.consume(Config.SERVER_TOKENS_PER_MINUTE.get(), tokens);
+        if (player != null) {
+            getBucket(player).consume(Config.PLAYER_TOKENS_PER_MINUTE.get(), tokens);
+        }
+    }
+
+    /**
+     * Record that a request was rejected or downgraded for being over budget.
+     */
+    public static void recordDenied(UUID player) {
+        serverUsage.denied();
+        if (player != null) {
+            playerUsage.computeIfAbsent(player, k -> new Usage()).denied();
+        }
+    }
+
+    /**
+     * Key used for per-companion usage (owner + lowercase name, so it survives resummoning).
+     */
+    public static String companionKey(UUID owner, String companionName) {
+        return owner + "/" + companionName.toLowerCase();
+    }
+
+    public static int getPlayerAvailable(UUID player) {
+        int limit = Config.PLAYER_TOKENS_PER_MINUTE.get();
+        return limit > 0 ? getBucket(player).available(limit) : -1;
+    }
+
+    public static int getServerAvailable() {
+        int limit = Config.SERVER_TOKENS_PER_MINUTE.get();
+        return limit > 0 ? serverBucket.available(limit) : -1;
+    }
+
+    public static Usage getPlayerUsage(UUID player) {
+        return playerUsage.getOrDefault(player, new Usage());
+    }
+
+    public static Usage getCompanionUsage(String companionKey) {
+        return companionUsage.getOrDefault(companionKey, new Usage());
+    }
+
+    public static Usage getServerUsage() {
+        return serverUsage;
+    }
+
+    private static Bucket getBucket(UUID player) {
+        return playerBuckets.computeIfAbsent(player, k -> new Bucket());
+    }
+
+    /**
+     * Tokens set aside for one LLM call. Exactly one of settle or release takes effect;
+     * later calls are ignored, so a finally block can always release.
+     */
+    public static class Reservation {
+        private final UUID player;
+        private final int reserved;
+        private boolean done = false;
+
+        private Reservation(UUID player, int reserved) {
+            this.player = player;
+            this.reserved = reserved;
+        }
+
+        /**
+         * Charge what the call really used instead of the estimate.
+         */
+        public synchronized void settle(String companionKey, int usedTokens) {
+            if (done) return;
+            done = true;
+            adjust(player, usedTokens - reserved);
+
+            serverUsage.add(usedTokens);
+            if (player != null) {
+                playerUsage.computeIfAbsent(player, k -> new Usage()).add(usedTokens);
+            }
+            if (companionKey != null) {
+                companionUsage.computeIfAbsent(companionKey, k -> new Usage()).add(usedTokens);
+            }
+        }
+
+        /**
+         * Give the tokens back, for calls that never reached the LLM (cache hits, aborts).
+         */
+        public synchronized void release() {
+            if (done) return;
+            done = true;
+            adjust(player, -reserved);
+        }
+    }
+
+    /**
+     * Token bucket holding up to one minute of budget. Can go negative (debt).
+     */
+    private static class Bucket {
+        private double tokens = Double.NaN;
+        private long lastRefill = System.nanoTime();
+
+        synchronized int available(int perMinute) {
+            refill(perMinute);
+            return (int) tokens;
+        }
+
+        synchronized void consume(int perMinute, int amount) {
+            refill(perMinute);
+            // Refunds never fill the bucket past its size
+            tokens = Math.min(perMinute, tokens - amount);
+        }
+
+        private void refill(int perMinute) {
+            long now = System.nanoTime();
+            if (Double.isNaN(tokens)) {
+                tokens = perMinute;  // Start full
+            } else {
+                double minutes = (now - lastRefill) / 60_000_000_000.0;
+                tokens = Math.min(perMinute, tokens + minutes * perMinute);
+            }
+            lastRefill = now;
+        }
+    }
+
+    /**
+     * Lifetime counters for stats display.
+     */
+    public static class Usage {
+        private long tokens = 0;
+        private int requests = 0;
+        private int denied = 0;
+
+        synchronized void add(int amount) {
+            tokens += amount;
+            requests++;
+        }
+
+        synchronized void denied() {
+            denied++;
+        }
+
+        public synchronized long getTokens() { return tokens; }
+        public synchronized int getRequests() { return requests; }
+        public synchronized int getDenied() { return denied; }
+    }
+}
@@ -3,9 +3,15 @@ package com.gblfxt.llmoblings.ai;
 import com.gblfxt.llmoblings.LLMoblings;
 import com.gblfxt.llmoblings.compat.AE2Integration;
 import com.gblfxt.llmoblings.entity.CompanionEntity;
+import com.gblfxt.llmoblings.entity.IndexedInventory;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Reference2ByteOpenHashMap;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.tags.ItemTags;
+import net.minecraft.tags.TagKey;
 import net.minecraft.world.entity.EquipmentSlot;
 import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.item.*;
@@ -16,6 +22,7 @@ import net.minecraft.world.level.block.CropBlock;
 import net.minecraft.world.level.block.state.BlockState;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * Provides ultimine-style mining capabilities for companions:
@@ -28,8 +35,24 @@ public class UltimineHelper {
     // Maximum blocks to mine in one ultimine operation
     private static final int MAX_VEIN_SIZE = 64;
     private static final int MAX_TREE_SIZE = 128;
+
+    // Neighbor offsets for BFS: the 26 cells around a block, and the 124 within two blocks
+    private static final int[][] CUBE_1 = cubeOffsets(1);
+    private static final int[][] CUBE_2 = cubeOffsets(2);
+
+    private static final byte UNKNOWN = -1;
+    private static final byte NOT_TREE = 0;
+    private static final byte TREE_LOG = 1;
+    private static final byte TREE_LEAF = 2;
     private static final int MAX_CROP_AREA = 9; // 3x3
 
+    // Tool kinds a block can be mined with, remembered per block
+    private static final byte NEEDS_PICKAXE = 1;
+    private static final byte NEEDS_AXE = 2;
+    private static final byte NEEDS_SHOVEL = 4;
+    private static final byte NEEDS_HOE = 8;
+    private static final Reference2ByteOpenHashMap<Block> TOOL_NEEDS = new Reference2ByteOpenHashMap<>();
+
     /**
      * Types of tools for different block types.
      */
@@ -178,16 +201,16 @@ public class UltimineHelper {
 
         // Check what materials we have
         int sticks = countItem(companion, Items.STICK);
-        int planks = countItemByTag(companion, "planks");
+        int planks = countItemByTag(companion, ItemTags.PLANKS);
         int cobblestone = countItem(companion, Items.COBBLESTONE);
         int iron = countItem(companion, Items.IRON_INGOT);
         int diamonds = countItem(companion, Items.DIAMOND);
-        int logs = countItemByTag(companion, "logs");
+        int logs = countItemByTag(companion, ItemTags.LOGS);
 
         // Can make sticks from planks if needed
         if (sticks < 2 && planks >= 2) {
             // Craft sticks from planks
-            if (removeItems(companion, null, "planks", 2)) {
+            if (removeItems(companion, ItemTags.PLANKS, 2)) {
                 addItem(companion, Items.STICK, 4);
                 sticks = countItem(companion, Items.STICK);
                 LLMoblings.LOGGER.info("[{}] Crafted sticks from planks", companion.getCompanionName());
@@ -196,9 +219,9 @@ public class UltimineHelper {
 
         // Can make planks from logs if needed
         if (planks < 3 && logs >= 1) {
-            if (removeItems(companion, null, "logs", 1)) {
+            if (removeItems(companion, ItemTags.LOGS, 1)) {
                 addItem(companion, Items.OAK_PLANKS, 4);
-                planks = countItemByTag(companion, "planks");
+                planks = countItemByTag(companion, ItemTags.PLANKS);
                 LLMoblings.LOGGER.info("[{}] Crafted planks from logs", companion.getCompanionName());
             }
         }
@@ -241,7 +264,7 @@ public class UltimineHelper {
         // Wood tier (3 planks + 2 sticks)
         if (planks >= 3 && !crafted) {
             toolItem = getWoodTool(toolType);
-            if (toolItem != null && removeItems(companion, null, "planks", 3) && removeItem(companion, Items.STICK, 2)) {
+            if (toolItem != null && removeItems(companion, ItemTags.PLANKS, 3) && removeItem(companion, Items.STICK, 2)) {
                 crafted = true;
             }
         }
@@ -297,66 +320,19 @@ public class UltimineHelper {
     }
 
     private static int countItem(CompanionEntity companion, Item item) {
-        int count = 0;
-        for (int i = 0; i < companion.getContainerSize(); i++) {
-            ItemStack stack = companion.getItem(i);
-            if (stack.getItem() == item) {
-                count += stack.getCount();
-            }
-        }
-        return count;
+        return companion.getIndexedInventory().count(item);
     }
 
-    private static int countItemByTag(CompanionEntity companion, String tagSubstring) {
-        int count = 0;
-        for (int i = 0; i < companion.getContainerSize(); i++) {
-            ItemStack stack = companion.getItem(i);
-            String itemId = BuiltInRegistries.ITEM.getKey(stack.getItem()).getPath();
-            if (itemId.contains(tagSubstring)) {
-                count += stack.getCount();
-            }
-        }
-        return count;
+    private static int countItemByTag(CompanionEntity companion, TagKey<Item> tag) {
+        return companion.getIndexedInventory().count(tag);
     }
 
     private static boolean removeItem(CompanionEntity companion, Item item, int amount) {
-        int remaining = amount;
-        for (int i = 0; i < companion.getContainerSize() && remaining > 0; i++) {
-            ItemStack stack = companion.getItem(i);
-            if (stack.getItem() == item) {
-                int toRemove = Math.min(remaining, stack.getCount());
-                stack.shrink(toRemove);
-                if (stack.isEmpty()) {
-                    companion.setItem(i, ItemStack.EMPTY);
-                }
-                remaining -= toRemove;
-            }
-        }
-        return remaining == 0;
+        return companion.getIndexedInventory().remove(item, amount) == amount;
     }
 
-    private static boolean removeItems(CompanionEntity companion, Item exactItem, String tagSubstring, int amount) {
-        int remaining = amount;
-        for (int i = 0; i < companion.getContainerSize() && remaining > 0; i++) {
-            ItemStack stack = companion.getItem(i);
-            boolean matches = false;
-            if (exactItem != null && stack.getItem() == exactItem) {
-                matches = true;
-            } else if (tagSubstring != null) {
-                String itemId = BuiltInRegistries.ITEM.getKey(stack.getItem()).getPath();
-                matches = itemId.contains(tagSubstring);
-            }
-
-            if (matches) {
-                int toRemove = Math.min(remaining, stack.getCount());
-                stack.shrink(toRemove);
-                if (stack.isEmpty()) {
-                    companion.setItem(i, ItemStack.EMPTY);
-                }
-                remaining -= toRemove;
-            }
-        }
-        return remaining == 0;
+    private static boolean removeItems(CompanionEntity companion, TagKey<Item> tag, int amount) {
+        return companion.getIndexedInventory().remove(item -> item.builtInRegistryHolder().is(tag), amount) == amount;
     }
 
     private static void addItem(CompanionEntity companion, Item item, int amount) {
@@ -376,34 +352,40 @@ public class UltimineHelper {
         }
 
         List<BlockPos> connected = new ArrayList<>();
-        Set<BlockPos> visited = new HashSet<>();
-        Queue<BlockPos> queue = new LinkedList<>();
+        LongOpenHashSet visited = new LongOpenHashSet();
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+        // blocksMatch compares registry names, so only do that once per block type
+        Reference2ByteOpenHashMap<Block> matches = new Reference2ByteOpenHashMap<>();
+        matches.defaultReturnValue(UNKNOWN);
+        Predicate<Block> isMatch = block -> {
+            byte match = matches.getByte(block);
+            if (match == UNKNOWN) {
+                match = blocksMatch(targetBlock, block) ? (byte) 1 : (byte) 0;
+                matches.put(block, match);
+            }
+            return match == 1;
+        };
 
-        queue.add(start);
-        visited.add(start);
+        queue.enqueue(start.asLong());
+        visited.add(start.asLong());
 
         while (!queue.isEmpty() && connected.size() < maxBlocks) {
-            BlockPos current = queue.poll();
-            BlockState currentState = level.getBlockState(current);
+            long current = queue.dequeueLong();
+            BlockState currentState = level.getBlockState(cursor.set(current));
 
             // Check if this block matches (same block type or similar ore)
-            if (blocksMatch(targetBlock, currentState.getBlock())) {
-                connected.add(current);
+            if (isMatch.test(currentState.getBlock())) {
+                connected.add(BlockPos.of(current));
 
                 // Check all 26 neighbors (including diagonals for better vein detection)
-                for (int dx = -1; dx <= 1; dx++) {
-                    for (int dy = -1; dy <= 1; dy++) {
-                        for (int dz = -1; dz <= 1; dz++) {
-                            if (dx == 0 && dy == 0 && dz == 0) continue;
-
-                            BlockPos neighbor = current.offset(dx, dy, dz);
-                            if (!visited.contains(neighbor)) {
-                                visited.add(neighbor);
-                                BlockState neighborState = level.getBlockState(neighbor);
-                                if (blocksMatch(targetBlock, neighborState.getBlock())) {
-                                    queue.add(neighbor);
-                                }
-                            }
+                for (int[] offset : CUBE_1) {
+                    long neighbor = BlockPos.offset(current, offset[0], offset[1], offset[2]);
+                    if (visited.add(neighbor)) {
+                        BlockState neighborState = level.getBlockState(cursor.set(neighbor));
+                        if (isMatch.test(neighborState.getBlock())) {
+                            queue.enqueue(neighbor);
                         }
                     }
                 }
@@ -438,53 +420,35 @@ public class UltimineHelper {
 
         List<BlockPos> logs = new ArrayList<>();
         List<BlockPos> leaves = new ArrayList<>();
-        Set<BlockPos> visited = new HashSet<>();
-        Queue<BlockPos> queue = new LinkedList<>();
+        LongOpenHashSet visited = new LongOpenHashSet();
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
 
-        queue.add(start);
-        visited.add(start);
-
-        while (!queue.isEmpty() && (logs.size() + leaves.size()) < MAX_TREE_SIZE) {
-            BlockPos current = queue.poll();
-            BlockState currentState = level.getBlockState(current);
-            String currentBlockId = BuiltInRegistries.BLOCK.getKey(currentState.getBlock()).getPath();
+        // Tree membership depends only on the block type, so classify each type once
+        Reference2ByteOpenHashMap<Block> treeParts = new Reference2ByteOpenHashMap<>();
+        treeParts.defaultReturnValue(UNKNOWN);
 
-            boolean isLog = currentBlockId.contains("log") || currentBlockId.contains("wood");
-            boolean isLeaf = currentBlockId.contains("leaves");
+        queue.enqueue(start.asLong());
+        visited.add(start.asLong());
 
-            // Must match wood type or be generic
-            boolean matchesType = woodType.isEmpty() ||
-                                  currentBlockId.contains(woodType) ||
-                                  isGenericTreeBlock(currentBlockId);
+        while (!queue.isEmpty() && (logs.size() + leaves.size()) < MAX_TREE_SIZE) {
+            long current = queue.dequeueLong();
+            byte part = treePart(treeParts, level.getBlockState(cursor.set(current)).getBlock(), woodType);
 
-            if ((isLog || isLeaf) && matchesType) {
-                if (isLog) {
-                    logs.add(current);
+            if (part != NOT_TREE) {
+                if (part == TREE_LOG) {
+                    logs.add(BlockPos.of(current));
                 } else {
-                    leaves.add(current);
+                    leaves.add(BlockPos.of(current));
                 }
 
                 // Search radius depends on block type
-                int searchRadius = isLog ? 1 : 2;
-
-                for (int dx = -searchRadius; dx <= searchRadius; dx++) {
-                    for (int dy = -searchRadius; dy <= searchRadius; dy++) {
-                        for (int dz = -searchRadius; dz <= searchRadius; dz++) {
-                            if (dx == 0 && dy == 0 && dz == 0) continue;
-
-                            BlockPos neighbor = current.offset(dx, dy, dz);
-                            if (!visited.contains(neighbor)) {
-                                visited.add(neighbor);
-                                BlockState neighborState = level.getBlockState(neighbor);
-                                String neighborId = BuiltInRegistries.BLOCK.getKey(neighborState.getBlock()).getPath();
-
-                                if ((neighborId.contains("log") || neighborId.contains("leaves") ||
-                                     neighborId.contains("wood")) &&
-                                    (woodType.isEmpty() || neighborId.contains(woodType) ||
-                                     isGenericTreeBlock(neighborId))) {
-                                    queue.add(neighbor);
-                                }
-                            }
+                for (int[] offset : part == TREE_LOG ? CUBE_1 : CUBE_2) {
+                    long neighbor = BlockPos.offset(current, offset[0], offset[1], offset[2]);
+                    if (visited.add(neighbor)) {
+                        byte neighborPart = treePart(treeParts, level.getBlockState(cursor.set(neighbor)).getBlock(), woodType);
+                        if (neighborPart != NOT_TREE) {
+                            queue.enqueue(neighbor);
                         }
                     }
                 }
@@ -616,119 +580,128 @@ public class UltimineHelper {
         }
 
         // Check companion inventory
-        for (int i = 0; i < companion.getContainerSize(); i++) {
-            ItemStack stack = companion.getItem(i);
-            String itemId = BuiltInRegistries.ITEM.getKey(stack.getItem()).getPath();
-            if (itemId.equals(seedId)) {
-                return stack;
-            }
-        }
-
-        return ItemStack.EMPTY;
+        int slot = companion.getIndexedInventory().firstSlot(
+                item -> BuiltInRegistries.ITEM.getKey(item).getPath().equals(seedId));
+        return slot >= 0 ? companion.getItem(slot) : ItemStack.EMPTY;
     }
 
     /**
-     * Get the best tool for mining a block type.
+     * Which tool kinds suit a block, as NEEDS_* bits. Worked out from the block name once per
+     * block and remembered.
      */
-    public static ItemStack getBestToolFor(CompanionEntity companion, BlockState state) {
-        String blockId = BuiltInRegistries.BLOCK.getKey(state.getBlock()).getPath();
-
-        // Determine tool type needed
-        boolean needsPickaxe = blockId.contains("ore") || blockId.contains("stone") ||
-                               blockId.contains("cobble") || blockId.contains("brick") ||
-                               blockId.contains("obsidian") || blockId.contains("netherrack") ||
-                               blockId.contains("deepslate") || blockId.contains("basalt");
+    private static byte toolNeeds(Block block) {
+        if (TOOL_NEEDS.containsKey(block)) {
+            return TOOL_NEEDS.getByte(block);
+        }
 
-        boolean needsAxe = blockId.contains("log") || blockId.contains("wood") ||
-                          blockId.contains("plank") || blockId.contains("fence") ||
-                          blockId.contains("door") || blockId.contains("chest");
+        String blockId = BuiltInRegistries.BLOCK.getKey(block).getPath();
+        byte needs = 0;
+        if (blockId.contains("ore") || blockId.contains("stone") ||
+                blockId.contains("cobble") || blockId.contains("brick") ||
+                blockId.contains("obsidian") || blockId.contains("netherrack") ||
+                blockId.contains("deepslate") || blockId.contains("basalt")) {
+            needs |= NEEDS_PICKAXE;
+        }
+        if (blockId.contains("log") || blockId.contains("wood") ||
+                blockId.contains("plank") || blockId.contains("fence") ||
+                blockId.contains("door") || blockId.contains("chest")) {
+            needs |= NEEDS_AXE;
+        }
+        if (blockId.contains("dirt") || blockId.contains("sand") ||
+                blockId.contains("gravel") || blockId.contains("clay") ||
+                blockId.contains("soul") || blockId.contains("snow")) {
+            needs |= NEEDS_SHOVEL;
+        }
+        if (blockId.contains("leaves") || blockId.contains("hay") ||
+                blockId.contains("sponge") || blockId.contains("moss")) {
+            needs |= NEEDS_HOE;
+        }
+        TOOL_NEEDS.put(block, needs);
+        return needs;
+    }
 
-        boolean needsShovel = blockId.contains("dirt") || blockId.contains("sand") ||
-                              blockId.contains("gravel") || blockId.contains("clay") ||
-                              blockId.contains("soul") || blockId.contains("snow");
+    private static boolean suits(Item item, byte needs) {
+        return ((needs & NEEDS_PICKAXE) != 0 && item instanceof PickaxeItem) ||
+               ((needs & NEEDS_AXE) != 0 && item instanceof AxeItem) ||
+               ((needs & NEEDS_SHOVEL) != 0 && item instanceof ShovelItem) ||
+               ((needs & NEEDS_HOE) != 0 && item instanceof HoeItem);
+    }
 
-        boolean needsHoe = blockId.contains("leaves") || blockId.contains("hay") ||
-                          blockId.contains("sponge") || blockId.contains("moss");
+    /**
+     * Inventory slot (other than the held one) with the highest-tier tool for a category, or -1.
+     * Kept until the inventory changes, so mining a vein of one block looks it up once.
+     */
+    private static int bestToolSlot(CompanionEntity companion, byte needs) {
+        IndexedInventory inventory = companion.getIndexedInventory();
+        int held = companion.getSelectedSlot();
+        String key = "best_tool_" + needs + "_" + held;
+
+        int slot = inventory.<Integer>derive(key, inv -> findBestTool(inv, needs, held));
+        if (slot >= 0 && !suits(inventory.get(slot).getItem(), needs)) {
+            // Moved or used up in place since it was picked
+            inventory.markChanged();
+            slot = inventory.<Integer>derive(key, inv -> findBestTool(inv, needs, held));
+        }
+        return slot;
+    }
 
-        // Search inventory for best matching tool
-        ItemStack bestTool = ItemStack.EMPTY;
+    private static int findBestTool(IndexedInventory inventory, byte needs, int held) {
+        int bestSlot = -1;
         int bestTier = -1;
-
-        for (int i = 0; i < companion.getContainerSize(); i++) {
-            ItemStack stack = companion.getItem(i);
-            if (stack.isEmpty()) continue;
-
-            Item item = stack.getItem();
-            int tier = getToolTier(item);
-
-            boolean matches = (needsPickaxe && item instanceof PickaxeItem) ||
-                             (needsAxe && item instanceof AxeItem) ||
-                             (needsShovel && item instanceof ShovelItem) ||
-                             (needsHoe && item instanceof HoeItem);
-
-            if (matches && tier > bestTier) {
-                bestTool = stack;
+        for (int slot : inventory.slotsOf(item -> suits(item, needs))) {
+            if (slot == held) continue;
+            int tier = getToolTier(inventory.get(slot).getItem());
+            if (tier > bestTier) {
                 bestTier = tier;
+                bestSlot = slot;
             }
         }
+        return bestSlot;
+    }
 
-        // Also check main hand
-        ItemStack mainHand = companion.getMainHandItem();
-        if (!mainHand.isEmpty()) {
-            Item item = mainHand.getItem();
-            int tier = getToolTier(item);
+    private static int heldToolTier(CompanionEntity companion, byte needs) {
+        Item held = companion.getMainHandItem().getItem();
+        return suits(held, needs) ? getToolTier(held) : -1;
+    }
 
-            boolean matches = (needsPickaxe && item instanceof PickaxeItem) ||
-                             (needsAxe && item instanceof AxeItem) ||
-                             (needsShovel && item instanceof ShovelItem) ||
-                             (needsHoe && item instanceof HoeItem);
+    /**
+     * Get the best tool for mining a block type.
+     */
+    public static ItemStack getBestToolFor(CompanionEntity companion, BlockState state) {
+        byte needs = toolNeeds(state.getBlock());
+        int slot = bestToolSlot(companion, needs);
+        int heldTier = heldToolTier(companion, needs);
 
-            if (matches && tier > bestTier) {
-                bestTool = mainHand;
-            }
+        if (slot >= 0 && getToolTier(companion.getItem(slot).getItem()) > heldTier) {
+            return companion.getItem(slot);
         }
-
-        return bestTool;
+        return heldTier >= 0 ? companion.getMainHandItem() : ItemStack.EMPTY;
     }
 
     /**
      * Equip the best tool for a block type.
      */
     public static boolean equipBestTool(CompanionEntity companion, BlockState state) {
-        ItemStack bestTool = getBestToolFor(companion, state);
+        byte needs = toolNeeds(state.getBlock());
+        int slot = bestToolSlot(companion, needs);
+        int heldTier = heldToolTier(companion, needs);
 
-        if (bestTool.isEmpty()) {
+        if (slot < 0 && heldTier < 0) {
             LLMoblings.LOGGER.debug("[{}] No suitable tool found for {}",
                 companion.getCompanionName(), state.getBlock());
             return false;
         }
 
-        // Already equipped? Use ItemStack comparison instead of reference
-        ItemStack currentHand = companion.getMainHandItem();
-        if (ItemStack.isSameItemSameComponents(currentHand, bestTool)) {
+        if (slot < 0 || heldTier >= getToolTier(companion.getItem(slot).getItem())) {
             LLMoblings.LOGGER.debug("[{}] Already holding best tool: {}",
-                companion.getCompanionName(), bestTool.getHoverName().getString());
+                companion.getCompanionName(), companion.getMainHandItem().getHoverName().getString());
             return true;
         }
 
-        // Find tool in inventory and swap
-        for (int i = 0; i < companion.getContainerSize(); i++) {
-            ItemStack slotItem = companion.getItem(i);
-            if (ItemStack.isSameItemSameComponents(slotItem, bestTool)) {
-                // Put current hand item into inventory slot
-                companion.setItem(i, currentHand.isEmpty() ? ItemStack.EMPTY : currentHand.copy());
-                // Equip the tool
-                companion.setItemSlot(net.minecraft.world.entity.EquipmentSlot.MAINHAND, slotItem.copy());
-
-                LLMoblings.LOGGER.info("[{}] Equipped {} for mining",
-                    companion.getCompanionName(), bestTool.getHoverName().getString());
-                return true;
-            }
-        }
-
-        LLMoblings.LOGGER.debug("[{}] Could not find tool {} in inventory to equip",
-            companion.getCompanionName(), bestTool.getHoverName().getString());
-        return false;
+        ItemStack tool = companion.getEquipment().swapIntoHand(slot);
+        LLMoblings.LOGGER.info("[{}] Equipped {} for mining",
+            companion.getCompanionName(), tool.getHoverName().getString());
+        return true;
     }
 
     /**
@@ -755,6 +728,34 @@ public class UltimineHelper {
         return -1;
     }
 
+    private static byte treePart(Reference2ByteOpenHashMap<Block> cache, Block block, String woodType) {
+        byte part = cache.getByte(block);
+        if (part == UNKNOWN) {
+            part = classifyTreePart(block, woodType);
+            cache.put(block, part);
+        }
+        return part;
+    }
+
+    /**
+     * Whether a block is a log or leaf of the given wood type (or a generic tree block).
+     */
+    private static byte classifyTreePart(Block block, String woodType) {
+        String blockId = BuiltInRegistries.BLOCK.getKey(block).getPath();
+        boolean isLog = blockId.contains("log") || blockId.contains("wood");
+        boolean isLeaf = blockId.contains("leaves");
+
+        // Must match wood type or be generic
+        boolean matchesType = woodType.isEmpty() ||
+                              blockId.contains(woodType) ||
+                              isGenericTreeBlock(blockId);
+
+        if (!matchesType) return NOT_TREE;
+        if (isLog) return TREE_LOG;
+        if (isLeaf) return TREE_LEAF;
+        return NOT_TREE;
+    }
+
     /**
      * Check if two blocks should be considered the same for vein mining.
      */
@@ -781,6 +782,21 @@ public class UltimineHelper {
         return false;
     }
 
+    private static int[][] cubeOffsets(int radius) {
+        int side = radius * 2 + 1;
+        int[][] offsets = new int[side * side * side - 1][];
+        int i = 0;
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dy = -radius; dy <= radius; dy++) {
+                for (int dz = -radius; dz <= radius; dz++) {
+                    if (dx == 0 && dy == 0 && dz == 0) continue;
+                    offsets[i++] = new int[]{dx, dy, dz};
+                }
+            }
+        }
+        return offsets;
+    }
+
     /**
      * Extract wood type from a block ID (e.g., "oak_log" -> "oak").
      */
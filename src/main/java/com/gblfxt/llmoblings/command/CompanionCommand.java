@@ -1,7 +1,10 @@
 package com.gblfxt.llmoblings.command;
 
+import com.gblfxt.llmoblings.CompanionRegistry;
 import com.gblfxt.llmoblings.Config;
 import com.gblfxt.llmoblings.LLMoblings;
+import com.gblfxt.llmoblings.ai.ResponseCache;
+import com.gblfxt.llmoblings.ai.TokenBudget;
 import com.gblfxt.llmoblings.data.CompanionSaveData;
 import com.gblfxt.llmoblings.entity.CompanionEntity;
 import com.mojang.brigadier.CommandDispatcher;
@@ -35,6 +38,9 @@ public class CompanionCommand {
                 .then(Commands.literal("list")
                         .executes(CompanionCommand::listCompanions)
                 )
+                .then(Commands.literal("stats")
+                        .executes(CompanionCommand::showStats)
+                )
                 .then(Commands.literal("help")
                         .executes(CompanionCommand::showHelp)
                 )
@@ -51,11 +57,8 @@ public class CompanionCommand {
         }
 
         // Check companion limit
-        List<CompanionEntity> existing = player.level().getEntitiesOfClass(
-                CompanionEntity.class,
-                player.getBoundingBox().inflate(256),
-                c -> c.isOwner(player)
-        );
+        List<CompanionEntity> existing = CompanionRegistry.getOwnedInBox(player.level(), player.getUUID(),
+                null, player.getBoundingBox().inflate(256));
 
         int maxCompanions = Config.MAX_COMPANIONS_PER_PLAYER.get();
         if (existing.size() >= maxCompanions) {
@@ -109,11 +112,8 @@ public class CompanionCommand {
             return 0;
         }
 
-        List<CompanionEntity> companions = player.level().getEntitiesOfClass(
-                CompanionEntity.class,
-                player.getBoundingBox().inflate(256),
-                c -> c.isOwner(player) && c.getCompanionName().equalsIgnoreCase(name)
-        );
+        List<CompanionEntity> companions = CompanionRegistry.getOwnedInBox(player.level(), player.getUUID(),
+                name, player.getBoundingBox().inflate(256));
 
         if (companions.isEmpty()) {
             source.sendFailure(Component.literal("No companion named '" + name + "' found."));
@@ -148,11 +148,8 @@ public class CompanionCommand {
             return 0;
         }
 
-        List<CompanionEntity> companions = player.level().getEntitiesOfClass(
-                CompanionEntity.class,
-                player.getBoundingBox().inflate(256),
-                c -> c.isOwner(player)
-        );
+        List<CompanionEntity> companions = CompanionRegistry.getOwnedInBox(player.level(), player.getUUID(),
+                null, player.getBoundingBox().inflate(256));
 
         if (companions.isEmpty()) {
             source.sendFailure(Component.literal("You have no companions to dismiss."));
@@ -189,20 +186,8 @@ public class CompanionCommand {
             return 0;
         }
 
-        // Search across ALL dimensions for companions
-        java.util.ArrayList<CompanionEntity> allCompanions = new java.util.ArrayList<>();
-
-        if (player.getServer() != null) {
-            for (ServerLevel level : player.getServer().getAllLevels()) {
-                // Get all entities of type CompanionEntity in this level
-                level.getEntities(LLMoblings.COMPANION.get(), entity -> {
-                    if (entity instanceof CompanionEntity companion && companion.isOwner(player)) {
-                        allCompanions.add(companion);
-                    }
-                    return true; // Continue iterating
-                });
-            }
-        }
+        // Companions in ALL dimensions
+        List<CompanionEntity> allCompanions = CompanionRegistry.getOwnedBy(player.getUUID());
 
         if (allCompanions.isEmpty()) {
             source.sendSuccess(() -> Component.literal("You have no companions. Use /companion summon <name> to create one."), false);
@@ -244,6 +229,54 @@ public class CompanionCommand {
         return 1;
     }
 
+    private static int showStats(CommandContext<CommandSourceStack> ctx) {
+        CommandSourceStack source = ctx.getSource();
+
+        if (!(source.getEntity() instanceof ServerPlayer player)) {
+            source.sendFailure(Component.literal("This command can only be used by players."));
+            return 0;
+        }
+
+        StringBuilder sb = new StringBuilder("LLM usage:\n");
+
+        int playerLimit = Config.PLAYER_TOKENS_PER_MINUTE.get();
+        TokenBudget.Usage playerUsage = TokenBudget.getPlayerUsage(player.getUUID());
+        sb.append(" You: ").append(playerUsage.getTokens()).append(" tokens over ")
+                .append(playerUsage.getRequests()).append(" requests");
+        if (playerUsage.getDenied() > 0) {
+            sb.append(", ").append(playerUsage.getDenied()).append(" over budget");
+        }
+        sb.append("\n");
+        sb.append(" Your budget: ").append(playerLimit > 0
+                ? Math.max(0, TokenBudget.getPlayerAvailable(player.getUUID())) + "/" + playerLimit + " tokens/min available"
+                : "unlimited").append("\n");
+
+        int serverLimit = Config.SERVER_TOKENS_PER_MINUTE.get();
+        TokenBudget.Usage serverUsage = TokenBudget.getServerUsage();
+        sb.append(" Server: ").append(serverUsage.getTokens()).append(" tokens over ")
+                .append(serverUsage.getRequests()).append(" requests, budget ")
+                .append(serverLimit > 0
+                        ? Math.max(0, TokenBudget.getServerAvailable()) + "/" + serverLimit + " tokens/min available"
+                        : "unlimited")
+                .append("\n");
+        sb.append(" Response cache: ").append(ResponseCache.getHits()).append(" hits, ")
+                .append(ResponseCache.getCollapsed()).append(" collapsed, ")
+                .append(ResponseCache.getMisses()).append(" misses (")
+                .append(String.format("%.1f", ResponseCache.getHitRatio() * 100)).append("% hit ratio, ")
+                .append(ResponseCache.size()).append(" entries)\n");
+
+        for (CompanionEntity companion : CompanionRegistry.getOwnedBy(player.getUUID())) {
+            TokenBudget.Usage usage = TokenBudget.getCompanionUsage(
+                    TokenBudget.companionKey(player.getUUID(), companion.getCompanionName()));
+            sb.append(" - ").append(companion.getCompanionName()).append(": ")
+                    .append(usage.getTokens()).append(" tokens over ")
+                    .append(usage.getRequests()).append(" requests\n");
+        }
+
+        source.sendSuccess(() -> Component.literal(sb.toString().trim()), false);
+        return 1;
+    }
+
     private static int showHelp(CommandContext<CommandSourceStack> ctx) {
         CommandSourceStack source = ctx.getSource();
 
@@ -253,6 +286,7 @@ LLMoblings Commands:
   /companion dismiss <name> - Dismiss a specific companion
   /companion dismiss - Dismiss all companions
   /companion list - List your companions
+  /companion stats - Show LLM token usage, budgets and cache stats
 
 Chat with companions using: @<name> <message>
 Example: @Alex follow me""";
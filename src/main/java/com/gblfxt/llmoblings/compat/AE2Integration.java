@@ -1,6 +1,9 @@
 package com.gblfxt.llmoblings.compat;
 
+import com.gblfxt.llmoblings.BlockEntitySearch;
 import com.gblfxt.llmoblings.LLMoblings;
+import com.gblfxt.llmoblings.PointOfInterestIndex;
+import com.gblfxt.llmoblings.ScanJob;
 import com.gblfxt.llmoblings.entity.CompanionEntity;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.item.Item;
@@ -10,8 +13,10 @@ import net.minecraft.world.level.block.entity.BlockEntity;
 import net.neoforged.fml.ModList;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Integration with Applied Energistics 2 for accessing ME storage networks.
@@ -36,44 +41,64 @@ public class AE2Integration {
      * Prioritizes actual terminals over buses and interfaces.
      */
     public static List<BlockPos> findMEAccessPoints(Level level, BlockPos center, int radius) {
+        return scanMEAccessPoints(level, center, radius, points -> {}).runNow();
+    }
+
+    /**
+     * Incremental version of {@link #findMEAccessPoints}: checks one chunk per unit and hands
+     * the access points, best first, to onComplete when done.
+     */
+    public static ScanJob<List<BlockPos>> scanMEAccessPoints(Level level, BlockPos center, int radius,
+                                                             Consumer<List<BlockPos>> onComplete) {
         List<BlockPos> terminals = new ArrayList<>();
         List<BlockPos> otherAccess = new ArrayList<>();
 
+        ScanJob<List<BlockPos>> job = new ScanJob<>("ME access points", () -> {
+            // Return terminals first, then other access points
+            if (!terminals.isEmpty()) {
+                return terminals;
+            }
+            return otherAccess;
+        }, onComplete);
+
         if (!isAE2Loaded()) {
-            return terminals;
+            return job;
         }
 
-        try {
-            for (int x = -radius; x <= radius; x++) {
-                for (int y = -5; y <= 5; y++) {
-                    for (int z = -radius; z <= radius; z++) {
-                        BlockPos pos = center.offset(x, y, z);
-                        BlockEntity be = level.getBlockEntity(pos);
-
-                        if (be != null) {
-                            int priority = getMEAccessPriority(be);
-                            if (priority == 1) {
-                                terminals.add(pos);  // High priority - terminals
-                            } else if (priority == 2) {
-                                otherAccess.add(pos);  // Lower priority - interfaces, chests
-                            }
+        job.forEachChunk(level, center, radius, chunk -> {
+            try {
+                // Candidates are AE2 block entities from the chunk's block-entity map
+                List<BlockPos> candidates = new ArrayList<>();
+                BlockEntitySearch.findInChunk(chunk, center, radius, 5, PointOfInterestIndex::isMEBlockEntity, candidates);
+
+                for (BlockPos pos : candidates) {
+                    BlockEntity be = level.getBlockEntity(pos);
+
+                    if (be != null) {
+                        int priority = getMEAccessPriority(be);
+                        if (priority == 1) {
+                            terminals.add(pos);  // High priority - terminals
+                        } else if (priority == 2) {
+                            otherAccess.add(pos);  // Lower priority - interfaces, chests
                         }
                     }
                 }
+            } catch (Exception e) {
+                LLMoblings.LOGGER.debug("Error scanning for ME access points: {}", e.getMessage());
             }
-        } catch (Exception e) {
-            LLMoblings.LOGGER.debug("Error scanning for ME access points: {}", e.getMessage());
-        }
+        });
 
-        // Return terminals first, then other access points
-        if (!terminals.isEmpty()) {
-            LLMoblings.LOGGER.info("AE2: Found {} terminals", terminals.size());
-            return terminals;
-        }
-        if (!otherAccess.isEmpty()) {
-            LLMoblings.LOGGER.info("AE2: No terminals, using {} other access points", otherAccess.size());
-        }
-        return otherAccess;
+        job.then(() -> {
+            terminals.sort(Comparator.comparingDouble(pos -> pos.distSqr(center)));
+            otherAccess.sort(Comparator.comparingDouble(pos -> pos.distSqr(center)));
+
+            if (!terminals.isEmpty()) {
+                LLMoblings.LOGGER.info("AE2: Found {} terminals", terminals.size());
+            } else if (!otherAccess.isEmpty()) {
+                LLMoblings.LOGGER.info("AE2: No terminals, using {} other access points", otherAccess.size());
+            }
+        });
+        return job;
     }
 
     /**
@@ -66,12 +66,10 @@ public class ArtifactsIntegration {
             }
         }
 
-        // Check inventory
-        for (int i = 0; i < companion.getContainerSize(); i++) {
-            ItemStack stack = companion.getItem(i);
-            if (isFlyingArtifact(stack)) {
-                return true;
-            }
+        // Check inventory (remembered until the inventory changes)
+        if (companion.getIndexedInventory().derive("flying_artifact",
+                inventory -> inventory.firstSlot(ArtifactsIntegration::isFlyingArtifact) >= 0)) {
+            return true;
         }
 
         // Also check held items
@@ -86,11 +84,11 @@ public class ArtifactsIntegration {
      * Check if an item is a flying artifact.
      */
     public static boolean isFlyingArtifact(ItemStack stack) {
-        if (stack.isEmpty()) {
-            return false;
-        }
+        return !stack.isEmpty() && isFlyingArtifact(stack.getItem());
+    }
 
-        String itemName = BuiltInRegistries.ITEM.getKey(stack.getItem()).toString().toLowerCase();
+    public static boolean isFlyingArtifact(Item item) {
+        String itemName = BuiltInRegistries.ITEM.getKey(item).toString().toLowerCase();
 
         // Check for known flying artifacts
         return itemName.contains("tablet_of_flying") ||
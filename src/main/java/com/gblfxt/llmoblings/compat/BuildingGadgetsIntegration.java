@@ -59,11 +59,15 @@ public class BuildingGadgetsIntegration {
      * Check if an item is a building gadget.
      */
     public static boolean isGadget(ItemStack stack) {
-        if (!isBuildingGadgetsLoaded() || stack.isEmpty()) {
+        return !stack.isEmpty() && isGadget(stack.getItem());
+    }
+
+    public static boolean isGadget(Item item) {
+        if (!isBuildingGadgetsLoaded()) {
             return false;
         }
 
-        String itemId = BuiltInRegistries.ITEM.getKey(stack.getItem()).toString();
+        String itemId = BuiltInRegistries.ITEM.getKey(item).toString();
         return itemId.startsWith("buildinggadgets2:");
     }
 
@@ -71,11 +75,15 @@ public class BuildingGadgetsIntegration {
      * Check if an item is specifically a building gadget (places blocks).
      */
     public static boolean isBuildingGadget(ItemStack stack) {
-        if (!isBuildingGadgetsLoaded() || stack.isEmpty()) {
+        return !stack.isEmpty() && isBuildingGadget(stack.getItem());
+    }
+
+    public static boolean isBuildingGadget(Item item) {
+        if (!isBuildingGadgetsLoaded()) {
             return false;
         }
 
-        String itemId = BuiltInRegistries.ITEM.getKey(stack.getItem()).toString();
+        String itemId = BuiltInRegistries.ITEM.getKey(item).toString();
         return itemId.equals(BUILDING_GADGET);
     }
 
@@ -90,14 +98,8 @@ public class BuildingGadgetsIntegration {
         }
 
         // Check inventory
-        for (int i = 0; i < companion.getContainerSize(); i++) {
-            ItemStack stack = companion.getItem(i);
-            if (isBuildingGadget(stack)) {
-                return stack;
-            }
-        }
-
-        return ItemStack.EMPTY;
+        int slot = companion.getIndexedInventory().firstSlot(BuildingGadgetsIntegration::isBuildingGadget);
+        return slot >= 0 ? companion.getItem(slot) : ItemStack.EMPTY;
     }
 
     /**
@@ -111,14 +113,8 @@ public class BuildingGadgetsIntegration {
         }
 
         // Check inventory
-        for (int i = 0; i < companion.getContainerSize(); i++) {
-            ItemStack stack = companion.getItem(i);
-            if (isGadget(stack)) {
-                return stack;
-            }
-        }
-
-        return ItemStack.EMPTY;
+        int slot = companion.getIndexedInventory().firstSlot(BuildingGadgetsIntegration::isGadget);
+        return slot >= 0 ? companion.getItem(slot) : ItemStack.EMPTY;
     }
 
     /**
@@ -365,15 +361,10 @@ public class BuildingGadgetsIntegration {
      * Find a block in companion's inventory that can be used with the gadget.
      */
     public static Block findBuildableBlock(CompanionEntity companion) {
-        for (int i = 0; i < companion.getContainerSize(); i++) {
-            ItemStack stack = companion.getItem(i);
-            if (!stack.isEmpty()) {
-                Block block = Block.byItem(stack.getItem());
-                if (block != Blocks.AIR && block.defaultBlockState().isSolid()) {
-                    return block;
-                }
-            }
-        }
-        return null;
+        int slot = companion.getIndexedInventory().firstSlot(item -> {
+            Block block = Block.byItem(item);
+            return block != Blocks.AIR && block.defaultBlockState().isSolid();
+        });
+        return slot >= 0 ? Block.byItem(companion.getItem(slot).getItem()) : null;
     }
 }
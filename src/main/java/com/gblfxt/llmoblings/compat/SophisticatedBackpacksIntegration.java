@@ -42,17 +42,21 @@ public class SophisticatedBackpacksIntegration {
      * Check if an item is a backpack.
      */
     public static boolean isBackpack(ItemStack stack) {
-        if (!isSophisticatedBackpacksLoaded() || stack.isEmpty()) {
+        return !stack.isEmpty() && isBackpack(stack.getItem());
+    }
+
+    public static boolean isBackpack(Item item) {
+        if (!isSophisticatedBackpacksLoaded()) {
             return false;
         }
 
         // Check by class
-        if (backpackItemClass != null && backpackItemClass.isInstance(stack.getItem())) {
+        if (backpackItemClass != null && backpackItemClass.isInstance(item)) {
             return true;
         }
 
         // Fallback: check by registry name
-        String itemId = BuiltInRegistries.ITEM.getKey(stack.getItem()).toString();
+        String itemId = BuiltInRegistries.ITEM.getKey(item).toString();
         return itemId.startsWith("sophisticatedbackpacks:") && itemId.contains("backpack");
     }
 
@@ -73,27 +77,15 @@ public class SophisticatedBackpacksIntegration {
         }
 
         // Check inventory
-        for (int i = 0; i < companion.getContainerSize(); i++) {
-            ItemStack stack = companion.getItem(i);
-            if (isBackpack(stack)) {
-                return stack;
-            }
-        }
-
-        return ItemStack.EMPTY;
+        int slot = findBackpackSlot(companion);
+        return slot >= 0 ? companion.getItem(slot) : ItemStack.EMPTY;
     }
 
     /**
      * Find the slot index of a backpack in companion's inventory.
      */
     public static int findBackpackSlot(CompanionEntity companion) {
-        for (int i = 0; i < companion.getContainerSize(); i++) {
-            ItemStack stack = companion.getItem(i);
-            if (isBackpack(stack)) {
-                return i;
-            }
-        }
-        return -1;
+        return companion.getIndexedInventory().firstSlot(SophisticatedBackpacksIntegration::isBackpack);
     }
 
     /**
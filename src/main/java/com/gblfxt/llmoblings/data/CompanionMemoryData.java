@@ -0,0 +1,88 @@
+package com.gblfxt.llmoblings.data;
+
+import com.gblfxt.llmoblings.LLMoblings;
+import com.gblfxt.llmoblings.ai.CompanionMemory;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.saveddata.SavedData;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Persists companion long-term memories (text + embedding vectors) with the world.
+ * Stored on the overworld, per-player, keyed by companion name so memories survive
+ * dismiss/summon cycles and dimension changes.
+ */
+public class CompanionMemoryData extends SavedData {
+
+    private static final String DATA_NAME = "llmoblings_memories";
+
+    // Map: PlayerUUID -> (CompanionName -> Memory)
+    private final Map<UUID, Map<String, CompanionMemory>> playerMemories = new HashMap<>();
+
+    public CompanionMemoryData() {
+    }
+
+    public static CompanionMemoryData get(ServerLevel level) {
+        return level.getServer().overworld().getDataStorage().computeIfAbsent(
+                new Factory<>(CompanionMemoryData::new, CompanionMemoryData::load),
+                DATA_NAME
+        );
+    }
+
+    public static CompanionMemoryData load(CompoundTag tag, HolderLookup.Provider provider) {
+        CompanionMemoryData data = new CompanionMemoryData();
+
+        ListTag playersList = tag.getList("Players", 10);
+        for (int i = 0; i < playersList.size(); i++) {
+            CompoundTag playerTag = playersList.getCompound(i);
+            UUID playerUUID = playerTag.getUUID("UUID");
+
+            ListTag companionsList = playerTag.getList("Companions", 10);
+            for (int j = 0; j < companionsList.size(); j++) {
+                CompoundTag companionTag = companionsList.getCompound(j);
+                CompanionMemory memory = data.getMemory(playerUUID, companionTag.getString("Name"));
+                memory.load(companionTag.getList("Entries", 10));
+            }
+        }
+
+        LLMoblings.LOGGER.info("Loaded companion memories for {} players", data.playerMemories.size());
+        return data;
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag, HolderLookup.Provider provider) {
+        ListTag playersList = new ListTag();
+
+        for (Map.Entry<UUID, Map<String, CompanionMemory>> entry : playerMemories.entrySet()) {
+            CompoundTag playerTag = new CompoundTag();
+            playerTag.putUUID("UUID", entry.getKey());
+
+            ListTag companionsList = new ListTag();
+            for (Map.Entry<String, CompanionMemory> companion : entry.getValue().entrySet()) {
+                CompoundTag companionTag = new CompoundTag();
+                companionTag.putString("Name", companion.getKey());
+                companionTag.put("Entries", companion.getValue().save());
+                companionsList.add(companionTag);
+            }
+            playerTag.put("Companions", companionsList);
+
+            playersList.add(playerTag);
+        }
+
+        tag.put("Players", playersList);
+        return tag;
+    }
+
+    /**
+     * Get (or create) the memory store for a player's companion.
+     */
+    public CompanionMemory getMemory(UUID playerUUID, String companionName) {
+        return playerMemories.computeIfAbsent(playerUUID, k -> new HashMap<>())
+                .computeIfAbsent(companionName.toLowerCase(), k -> new CompanionMemory(this::setDirty));
+    }
+}
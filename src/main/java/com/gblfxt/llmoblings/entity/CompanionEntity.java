@@ -1,9 +1,14 @@
 package com.gblfxt.llmoblings.entity;
 
 import com.gblfxt.llmoblings.ChunkLoadingManager;
+import com.gblfxt.llmoblings.CompanionRegistry;
 import com.gblfxt.llmoblings.Config;
+import com.gblfxt.llmoblings.EntitySnapshot;
 import com.gblfxt.llmoblings.LLMoblings;
+import com.gblfxt.llmoblings.WorkScheduler;
+import com.gblfxt.llmoblings.ai.AiDetail;
 import com.gblfxt.llmoblings.ai.CompanionAI;
+import com.gblfxt.llmoblings.ai.NavigationManager;
 import com.gblfxt.llmoblings.compat.ArtifactsIntegration;
 import com.gblfxt.llmoblings.compat.JourneyMapIntegration;
 import net.minecraft.core.NonNullList;
@@ -25,11 +30,7 @@ import net.minecraft.world.entity.ai.goal.OpenDoorGoal;
 import net.minecraft.world.entity.ai.navigation.GroundPathNavigation;
 import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.entity.player.Player;
-import net.minecraft.world.item.ArmorItem;
-import net.minecraft.world.item.AxeItem;
-import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.item.SwordItem;
 import net.minecraft.world.level.GameRules;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.phys.AABB;
@@ -56,11 +57,20 @@ public class CompanionEntity extends PathfinderMob implements Container {
             SynchedEntityData.defineId(CompanionEntity.class, EntityDataSerializers.STRING);
 
     // Inventory (36 slots like player + 4 armor + 1 offhand)
-    private final NonNullList<ItemStack> inventory = NonNullList.withSize(36, ItemStack.EMPTY);
+    private final IndexedInventory inventory = new IndexedInventory(36);
+    private final EquipmentOptimizer equipment = new EquipmentOptimizer(this);
+    private final WorkScheduler schedule = new WorkScheduler(this);
+    private AiDetail aiDetail = AiDetail.FULL;
+    private final NavigationManager navigationManager = new NavigationManager(this);
     private final NonNullList<ItemStack> armorSlots = NonNullList.withSize(4, ItemStack.EMPTY);
     private ItemStack offhandItem = ItemStack.EMPTY;
     private int selectedSlot = 0;
 
+    // Item pickup runs this often while items are known to be nearby
+    private static final int PICKUP_INTERVAL = 4;
+    private boolean itemsNearby = true;
+    private int nextPickupTick = 0;
+
     // AI Controller
     private CompanionAI aiController;
 
@@ -110,33 +120,44 @@ public class CompanionEntity extends PathfinderMob implements Container {
         super.tick();
 
         if (!this.level().isClientSide) {
+            CompanionRegistry.updatePosition(this);
+
+            // Drop to reduced AI rates while no player is near (checked every second)
+            if (schedule.isDue(WorkScheduler.Job.DETAIL_CHECK)) {
+                aiDetail = AiDetail.evaluate(this);
+                schedule.setSlowdown(aiDetail.slowdown());
+            }
+
             // Tick AI controller
             if (aiController != null) {
                 aiController.tick();
             }
 
-            // Item pickup
-            pickupItems();
+            // Item pickup - soon after something drops nearby, plus a slow sweep for items we walk up to
+            // (the schedule is asked first so it's asked every tick, as it expects)
+            if (schedule.isDue(WorkScheduler.Job.ITEM_SWEEP) || (itemsNearby && this.tickCount >= nextPickupTick)) {
+                pickupItems();
+            }
 
             // Auto-eat when health is low (every 2 seconds)
-            if (this.tickCount % 40 == 0) {
+            if (schedule.isDue(WorkScheduler.Job.EAT)) {
                 tryEatFood();
             }
 
-            // Auto-equip best items (every 3 seconds)
-            if (this.tickCount % 60 == 0) {
-                autoEquipBestItems();
+            // Put on better gear if the inventory or worn gear changed (checked every second)
+            if (schedule.isDue(WorkScheduler.Job.EQUIPMENT)) {
+                equipment.update();
             }
 
             // Check for flying artifacts (every second)
-            if (this.tickCount % 20 == 0) {
+            if (schedule.isDue(WorkScheduler.Job.FLIGHT_CHECK)) {
                 updateFlyingAbility();
             }
 
             // Start/update chunk loading
             if (this.tickCount == 1) {
                 ChunkLoadingManager.startLoadingChunks(this);
-            } else if (this.tickCount % 100 == 0) {
+            } else if (schedule.isDue(WorkScheduler.Job.CHUNK_LOADING)) {
                 ChunkLoadingManager.updateChunkLoading(this);
             }
 
@@ -151,12 +172,12 @@ public class CompanionEntity extends PathfinderMob implements Container {
             }
 
             // Check for nearby boats periodically
-            if (this.tickCount % 40 == 0 && this.isInWater() && !this.isPassenger()) {
+            if (schedule.isDue(WorkScheduler.Job.BOAT_CHECK) && this.isInWater() && !this.isPassenger()) {
                 tryBoardNearbyBoat();
             }
 
             // Update map marker every 2 seconds
-            if (this.tickCount % 40 == 0) {
+            if (schedule.isDue(WorkScheduler.Job.MAP_MARKER)) {
                 JourneyMapIntegration.updateCompanionMarker(this);
             }
         }
@@ -260,7 +281,7 @@ public class CompanionEntity extends PathfinderMob implements Container {
                 }
             } else if (nearestBoat != null) {
                 // Swim toward the boat
-                this.getNavigation().moveTo(nearestBoat, 1.2);
+                navigationManager.moveTo(nearestBoat, 1.2);
             }
         }
     }
@@ -349,6 +370,9 @@ public class CompanionEntity extends PathfinderMob implements Container {
         if (!this.level().isClientSide) {
             ChunkLoadingManager.stopLoadingChunks(this);
             JourneyMapIntegration.removeCompanionMarker(this);
+            if (aiController != null) {
+                aiController.onRemoved();
+            }
         }
         super.remove(reason);
     }
@@ -425,9 +449,10 @@ public class CompanionEntity extends PathfinderMob implements Container {
         int radius = Config.ITEM_PICKUP_RADIUS.get();
         AABB pickupBox = this.getBoundingBox().inflate(radius);
 
-        List<ItemEntity> items = this.level().getEntitiesOfClass(ItemEntity.class, pickupBox,
+        List<ItemEntity> items = EntitySnapshot.of(this.level()).query(ItemEntity.class, pickupBox,
                 item -> !item.isRemoved() && !item.getItem().isEmpty() && item.isAlive());
 
+        boolean leftBehind = false;
         for (ItemEntity itemEntity : items) {
             ItemStack stack = itemEntity.getItem();
             int originalCount = stack.getCount();
@@ -436,31 +461,51 @@ public class CompanionEntity extends PathfinderMob implements Container {
             if (remaining.isEmpty()) {
                 this.take(itemEntity, originalCount);
                 itemEntity.discard();
-            } else if (remaining.getCount() < originalCount) {
-                this.take(itemEntity, originalCount - remaining.getCount());
-                itemEntity.setItem(remaining);
+            } else {
+                if (remaining.getCount() < originalCount) {
+                    this.take(itemEntity, originalCount - remaining.getCount());
+                    itemEntity.setItem(remaining);
+                }
+                leftBehind = true;
             }
         }
+
+        // Keep trying while there's something we couldn't fit, at the throttled rate
+        itemsNearby = leftBehind;
+        nextPickupTick = this.tickCount + PICKUP_INTERVAL * aiDetail.slowdown();
+    }
+
+    /**
+     * An item entity appeared within pickup range. Called from {@link CompanionRegistry}.
+     */
+    public void onItemNearby() {
+        itemsNearby = true;
     }
 
     public ItemStack addToInventory(ItemStack stack) {
         // Try to stack with existing items first
-        for (int i = 0; i < inventory.size(); i++) {
+        int i;
+        boolean merged = false;
+        while (!stack.isEmpty() && (i = inventory.findStackable(stack)) >= 0) {
             ItemStack slot = inventory.get(i);
-            if (ItemStack.isSameItemSameComponents(slot, stack) && slot.getCount() < slot.getMaxStackSize()) {
-                int toAdd = Math.min(stack.getCount(), slot.getMaxStackSize() - slot.getCount());
-                slot.grow(toAdd);
-                stack.shrink(toAdd);
-                if (stack.isEmpty()) return ItemStack.EMPTY;
-            }
+            int toAdd = Math.min(stack.getCount(), slot.getMaxStackSize() - slot.getCount());
+            slot.grow(toAdd);
+            stack.shrink(toAdd);
+            merged = true;
+        }
+        if (merged) {
+            // Counts changed in place, which the inventory can't see by itself
+            inventory.markChanged();
+        }
+        if (stack.isEmpty()) {
+            return ItemStack.EMPTY;
         }
 
         // Find empty slot
-        for (int i = 0; i < inventory.size(); i++) {
-            if (inventory.get(i).isEmpty()) {
-                inventory.set(i, stack.copy());
-                return ItemStack.EMPTY;
-            }
+        i = inventory.findFree();
+        if (i >= 0) {
+            inventory.set(i, stack.copy());
+            return ItemStack.EMPTY;
         }
 
         return stack;
@@ -509,112 +554,6 @@ public class CompanionEntity extends PathfinderMob implements Container {
         }
     }
 
-    /**
-     * Automatically equip the best items from inventory.
-     */
-    private void autoEquipBestItems() {
-        // Check for better weapon
-        ItemStack currentWeapon = getMainHandItem();
-        float currentDamage = getItemDamage(currentWeapon);
-
-        int bestWeaponSlot = -1;
-        float bestDamage = currentDamage;
-
-        for (int i = 0; i < inventory.size(); i++) {
-            ItemStack stack = inventory.get(i);
-            if (stack.isEmpty()) continue;
-
-            Item item = stack.getItem();
-            if (item instanceof SwordItem || item instanceof AxeItem) {
-                float damage = getItemDamage(stack);
-                if (damage > bestDamage) {
-                    bestDamage = damage;
-                    bestWeaponSlot = i;
-                }
-            }
-        }
-
-        if (bestWeaponSlot >= 0) {
-            // Swap to better weapon
-            ItemStack betterWeapon = inventory.get(bestWeaponSlot);
-            if (!currentWeapon.isEmpty()) {
-                inventory.set(bestWeaponSlot, currentWeapon);
-            } else {
-                inventory.set(bestWeaponSlot, ItemStack.EMPTY);
-            }
-            setItemSlot(EquipmentSlot.MAINHAND, betterWeapon);
-            LLMoblings.LOGGER.info("[{}] Equipped better weapon: {}", getCompanionName(), betterWeapon.getItem().getDescription().getString());
-
-            Player owner = getOwner();
-            if (owner != null) {
-                owner.sendSystemMessage(net.minecraft.network.chat.Component.literal(
-                        "[" + getCompanionName() + "] *equips " + betterWeapon.getItem().getDescription().getString() + "*"
-                ));
-            }
-        }
-
-        // Check for better armor
-        for (EquipmentSlot slot : new EquipmentSlot[]{EquipmentSlot.HEAD, EquipmentSlot.CHEST, EquipmentSlot.LEGS, EquipmentSlot.FEET}) {
-            ItemStack currentArmor = getItemBySlot(slot);
-            float currentProtection = getArmorProtection(currentArmor);
-
-            int bestArmorSlot = -1;
-            float bestProtection = currentProtection;
-
-            for (int i = 0; i < inventory.size(); i++) {
-                ItemStack stack = inventory.get(i);
-                if (stack.isEmpty()) continue;
-
-                if (stack.getItem() instanceof ArmorItem armorItem) {
-                    if (armorItem.getEquipmentSlot() == slot) {
-                        float protection = getArmorProtection(stack);
-                        if (protection > bestProtection) {
-                            bestProtection = protection;
-                            bestArmorSlot = i;
-                        }
-                    }
-                }
-            }
-
-            if (bestArmorSlot >= 0) {
-                ItemStack betterArmor = inventory.get(bestArmorSlot);
-                if (!currentArmor.isEmpty()) {
-                    inventory.set(bestArmorSlot, currentArmor);
-                } else {
-                    inventory.set(bestArmorSlot, ItemStack.EMPTY);
-                }
-                setItemSlot(slot, betterArmor);
-                LLMoblings.LOGGER.info("[{}] Equipped better armor: {}", getCompanionName(), betterArmor.getItem().getDescription().getString());
-
-                Player owner = getOwner();
-                if (owner != null) {
-                    owner.sendSystemMessage(net.minecraft.network.chat.Component.literal(
-                            "[" + getCompanionName() + "] *equips " + betterArmor.getItem().getDescription().getString() + "*"
-                    ));
-                }
-            }
-        }
-    }
-
-    private float getItemDamage(ItemStack stack) {
-        if (stack.isEmpty()) return 0;
-        Item item = stack.getItem();
-        if (item instanceof SwordItem sword) {
-            return sword.getDamage(stack);
-        } else if (item instanceof AxeItem axe) {
-            return axe.getDamage(stack);
-        }
-        return 0;
-    }
-
-    private float getArmorProtection(ItemStack stack) {
-        if (stack.isEmpty()) return 0;
-        if (stack.getItem() instanceof ArmorItem armor) {
-            return armor.getDefense();
-        }
-        return 0;
-    }
-
     @Override
     public boolean hurt(DamageSource source, float amount) {
         // If damage is disabled, companions are invulnerable
@@ -649,6 +588,7 @@ public class CompanionEntity extends PathfinderMob implements Container {
     // Owner management
     public void setOwner(@Nullable Player player) {
         this.entityData.set(DATA_OWNER, player != null ? Optional.of(player.getUUID()) : Optional.empty());
+        CompanionRegistry.update(this);
     }
 
     @Nullable
@@ -671,6 +611,7 @@ public class CompanionEntity extends PathfinderMob implements Container {
     // Name management
     public void setCompanionName(String name) {
         this.entityData.set(DATA_NAME, name);
+        CompanionRegistry.update(this);
     }
 
     public String getCompanionName() {
@@ -841,6 +782,7 @@ public class CompanionEntity extends PathfinderMob implements Container {
 
         if (tag.hasUUID("Owner")) {
             this.entityData.set(DATA_OWNER, Optional.of(tag.getUUID("Owner")));
+            CompanionRegistry.update(this);
         }
 
         // Load inventory
@@ -895,7 +837,9 @@ public class CompanionEntity extends PathfinderMob implements Container {
 
     @Override
     public ItemStack removeItem(int slot, int amount) {
-        return ContainerHelper.removeItem(inventory, slot, amount);
+        ItemStack removed = ContainerHelper.removeItem(inventory, slot, amount);
+        inventory.markChanged();
+        return removed;
     }
 
     @Override
@@ -912,7 +856,39 @@ public class CompanionEntity extends PathfinderMob implements Container {
 
     @Override
     public void setChanged() {
-        // Inventory changed callback
+        inventory.markChanged();
+    }
+
+    /**
+     * Indexed view of the 36 inventory slots for counting, finding and taking items.
+     */
+    public IndexedInventory getIndexedInventory() {
+        return inventory;
+    }
+
+    public EquipmentOptimizer getEquipment() {
+        return equipment;
+    }
+
+    /**
+     * Path-reusing movement; use this rather than getNavigation().moveTo from behaviors that run every tick.
+     */
+    public NavigationManager getNavigationManager() {
+        return navigationManager;
+    }
+
+    /**
+     * How closely the AI is simulated right now, from the distance to the nearest player.
+     */
+    public AiDetail getAiDetail() {
+        return aiDetail;
+    }
+
+    /**
+     * Spreads this companion's periodic jobs over ticks within the server-wide work budget.
+     */
+    public WorkScheduler getSchedule() {
+        return schedule;
     }
 
     @Override
@@ -0,0 +1,211 @@
+package com.gblfxt.llmoblings.entity;
+
+import com.gblfxt.llmoblings.LLMoblings;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ArmorItem;
+import net.minecraft.world.item.AxeItem;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.SwordItem;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Picks the best weapon and armor a companion is carrying and puts them on.
+ *
+ * Each stack is scored once (again only if its durability moves), and the best candidate for
+ * each slot is kept in the inventory's {@link IndexedInventory#derive} cache, so nothing is
+ * rescanned until the inventory changes. {@link #update} returns straight away unless the
+ * inventory version or the worn gear (which stacks, how damaged) changed since it last ran.
+ *
+ * A weapon is only swapped in over another weapon or an empty hand; a held tool was picked by
+ * whatever task is running.
+ *
+ * Server thread only.
+ */
+public class EquipmentOptimizer {
+
+    public static final EquipmentSlot[] ARMOR_SLOTS = {
+            EquipmentSlot.HEAD, EquipmentSlot.CHEST, EquipmentSlot.LEGS, EquipmentSlot.FEET};
+    private static final EquipmentSlot[] GEAR_SLOTS = {
+            EquipmentSlot.MAINHAND, EquipmentSlot.HEAD, EquipmentSlot.CHEST, EquipmentSlot.LEGS, EquipmentSlot.FEET};
+
+    // With less than this share of durability left an item scores half, so a spare gets swapped in
+    private static final float WORN_OUT = 0.1f;
+
+    private record Score(int damage, float value) {}
+
+    private final CompanionEntity companion;
+    // ItemStack has identity equality, so this is a per-stack cache that forgets discarded stacks
+    private final Map<ItemStack, Score> scores = new WeakHashMap<>();
+
+    private long checkedVersion = -1;
+    private long checkedGear = 0;
+
+    public EquipmentOptimizer(CompanionEntity companion) {
+        this.companion = companion;
+    }
+
+    // ========== SCORING ==========
+
+    public static boolean isWeapon(Item item) {
+        return item instanceof SwordItem || item instanceof AxeItem;
+    }
+
+    /**
+     * How good a stack is in the slot it goes in: attack bonus for weapons, defense plus
+     * toughness for armor, 0 for anything else.
+     */
+    public float score(ItemStack stack) {
+        if (stack.isEmpty()) {
+            return 0;
+        }
+        Score cached = scores.get(stack);
+        if (cached == null || cached.damage() != stack.getDamageValue()) {
+            cached = new Score(stack.getDamageValue(), computeScore(stack));
+            scores.put(stack, cached);
+        }
+        return cached.value();
+    }
+
+    private static float computeScore(ItemStack stack) {
+        float value;
+        if (stack.getItem() instanceof SwordItem sword) {
+            value = 1 + sword.getTier().getAttackDamageBonus();
+        } else if (stack.getItem() instanceof AxeItem axe) {
+            value = 1 + axe.getTier().getAttackDamageBonus();
+        } else if (stack.getItem() instanceof ArmorItem armor) {
+            value = armor.getDefense() + armor.getToughness();
+        } else {
+            return 0;
+        }
+
+        if (stack.isDamageableItem()
+                && stack.getMaxDamage() - stack.getDamageValue() < stack.getMaxDamage() * WORN_OUT) {
+            value *= 0.5f;
+        }
+        return value;
+    }
+
+    // ========== BEST IN SLOT ==========
+
+    /**
+     * Inventory slot (other than the held one) with the best weapon, or -1.
+     */
+    public int bestWeaponSlot() {
+        return best("weapon", EquipmentOptimizer::isWeapon);
+    }
+
+    /**
+     * Inventory slot with the best armor for an armor slot, or -1.
+     */
+    public int bestArmorSlot(EquipmentSlot armorSlot) {
+        return best("armor_" + armorSlot.getName(),
+                item -> item instanceof ArmorItem armor && armor.getEquipmentSlot() == armorSlot);
+    }
+
+    private int best(String kind, Predicate<Item> matches) {
+        IndexedInventory inventory = companion.getIndexedInventory();
+        int held = companion.getSelectedSlot();
+        String key = "best_" + kind + "_" + held;
+
+        int slot = inventory.<Integer>derive(key, inv -> findBest(inv, matches, held));
+        if (slot >= 0 && !matches.test(inventory.get(slot).getItem())) {
+            // Moved or used up in place since it was picked
+            inventory.markChanged();
+            slot = inventory.<Integer>derive(key, inv -> findBest(inv, matches, held));
+        }
+        return slot;
+    }
+
+    private int findBest(IndexedInventory inventory, Predicate<Item> matches, int held) {
+        int bestSlot = -1;
+        float bestScore = 0;
+        for (int slot : inventory.slotsOf(matches)) {
+            if (slot == held) continue;
+            float score = score(inventory.get(slot));
+            if (score > bestScore) {
+                bestScore = score;
+                bestSlot = slot;
+            }
+        }
+        return bestSlot;
+    }
+
+    // ========== EQUIPPING ==========
+
+    /**
+     * Put on anything better than what's worn, if the inventory or worn gear changed since the last call.
+     */
+    public void update() {
+        IndexedInventory inventory = companion.getIndexedInventory();
+        if (inventory.getVersion() == checkedVersion && gearSignature() == checkedGear) {
+            return;
+        }
+
+        ItemStack held = companion.getMainHandItem();
+        if (held.isEmpty() || isWeapon(held.getItem())) {
+            int slot = bestWeaponSlot();
+            if (slot >= 0 && score(inventory.get(slot)) > score(held)) {
+                announce("weapon", swapIntoHand(slot));
+            }
+        }
+
+        for (EquipmentSlot armorSlot : ARMOR_SLOTS) {
+            int slot = bestArmorSlot(armorSlot);
+            if (slot >= 0 && score(inventory.get(slot)) > score(companion.getItemBySlot(armorSlot))) {
+                announce("armor", swapIntoArmor(slot, armorSlot));
+            }
+        }
+
+        // Our own swaps bump the version; remember the state after them
+        checkedVersion = inventory.getVersion();
+        checkedGear = gearSignature();
+    }
+
+    /**
+     * Swap an inventory slot with the main hand. Returns the stack now held.
+     */
+    public ItemStack swapIntoHand(int slot) {
+        IndexedInventory inventory = companion.getIndexedInventory();
+        ItemStack incoming = inventory.get(slot);
+        inventory.set(slot, companion.getMainHandItem());
+        companion.setItemSlot(EquipmentSlot.MAINHAND, incoming);
+        return incoming;
+    }
+
+    /**
+     * Swap an inventory slot with an armor slot. Returns the stack now worn.
+     */
+    public ItemStack swapIntoArmor(int slot, EquipmentSlot armorSlot) {
+        IndexedInventory inventory = companion.getIndexedInventory();
+        ItemStack incoming = inventory.get(slot);
+        inventory.set(slot, companion.getItemBySlot(armorSlot));
+        companion.setItemSlot(armorSlot, incoming);
+        return incoming;
+    }
+
+    private void announce(String kind, ItemStack equipped) {
+        String name = equipped.getItem().getDescription().getString();
+        LLMoblings.LOGGER.info("[{}] Equipped better {}: {}", companion.getCompanionName(), kind, name);
+
+        Player owner = companion.getOwner();
+        if (owner != null) {
+            owner.sendSystemMessage(Component.literal("[" + companion.getCompanionName() + "] *equips " + name + "*"));
+        }
+    }
+
+    private long gearSignature() {
+        long signature = companion.getSelectedSlot();
+        for (EquipmentSlot slot : GEAR_SLOTS) {
+            ItemStack stack = companion.getItemBySlot(slot);
+            signature = signature * 31 + System.identityHashCode(stack);
+            signature = signature * 31 + stack.getDamageValue();
+        }
+        return signature;
+    }
+}
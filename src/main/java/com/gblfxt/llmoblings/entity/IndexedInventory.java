@@ -0,0 +1,285 @@
+package com.gblfxt.llmoblings.entity;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntRBTreeSet;
+import it.unimi.dsi.fastutil.ints.IntSortedSet;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.core.NonNullList;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Companion inventory that keeps track of which slots hold which item and which are free,
+ * so adding, counting, finding and consuming items are lookups instead of slot-by-slot scans
+ * with registry-name comparisons. Item predicates are checked once per distinct item held,
+ * not once per slot.
+ *
+ * Every write through {@link #set} re-files the slot and bumps the version, as does
+ * {@link #markChanged}. Values derived from the contents can be kept with {@link #derive}
+ * until the version moves. Stacks can still be shrunk in place by code holding a reference
+ * to them, so slot lists are checked on read: a slot emptied behind our back is skipped and
+ * re-filed, and if no free slot is known the whole list is re-filed once before giving up.
+ */
+public class IndexedInventory extends NonNullList<ItemStack> {
+
+    private final Item[] filedAs;
+    private final Reference2ObjectOpenHashMap<Item, IntSortedSet> slotsByItem = new Reference2ObjectOpenHashMap<>();
+    private final IntSortedSet freeSlots = new IntRBTreeSet();
+
+    private long version = 0;
+    private final Map<String, Object> derived = new HashMap<>();
+    private long derivedVersion = -1;
+
+    public IndexedInventory(int size) {
+        super(Arrays.asList(filled(size)), ItemStack.EMPTY);
+        this.filedAs = new Item[size];
+        for (int i = 0; i < size; i++) {
+            freeSlots.add(i);
+        }
+    }
+
+    private static ItemStack[] filled(int size) {
+        ItemStack[] stacks = new ItemStack[size];
+        Arrays.fill(stacks, ItemStack.EMPTY);
+        return stacks;
+    }
+
+    @Override
+    public ItemStack set(int slot, ItemStack stack) {
+        ItemStack previous = super.set(slot, stack);
+        refile(slot);
+        return previous;
+    }
+
+    private void refile(int slot) {
+        version++;
+        Item previous = filedAs[slot];
+        if (previous != null) {
+            IntSortedSet slots = slotsByItem.get(previous);
+            if (slots != null && slots.remove(slot) && slots.isEmpty()) {
+                slotsByItem.remove(previous);
+            }
+        }
+
+        ItemStack stack = get(slot);
+        if (stack.isEmpty()) {
+            filedAs[slot] = null;
+            freeSlots.add(slot);
+        } else {
+            filedAs[slot] = stack.getItem();
+            freeSlots.remove(slot);
+            IntSortedSet slots = slotsByItem.get(stack.getItem());
+            if (slots == null) {
+                slots = new IntRBTreeSet();
+                slotsByItem.put(stack.getItem(), slots);
+            }
+            slots.add(slot);
+        }
+    }
+
+    /**
+     * Re-file every slot. For after stacks were changed in place.
+     */
+    public void resync() {
+        for (int i = 0; i < size(); i++) {
+            refile(i);
+        }
+    }
+
+    /**
+     * Note a change made to a stack in place (count, damage, components).
+     */
+    public void markChanged() {
+        version++;
+    }
+
+    /**
+     * Increases whenever a slot is set or a change is reported.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * A value computed from the contents, reused until the inventory changes.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T derive(String key, Function<IndexedInventory, T> compute) {
+        if (derivedVersion != version) {
+            derived.clear();
+            derivedVersion = version;
+        }
+        Object value = derived.get(key);
+        if (value == null && !derived.containsKey(key)) {
+            value = compute.apply(this);
+            derived.put(key, value);
+        }
+        return (T) value;
+    }
+
+    // ========== LOOKUPS ==========
+
+    /**
+     * Lowest slot holding the same item and components as the stack with room left, or -1.
+     */
+    public int findStackable(ItemStack stack) {
+        IntSortedSet slots = slotsByItem.get(stack.getItem());
+        if (slots == null) {
+            return -1;
+        }
+
+        int found = -1;
+        IntArrayList stale = null;
+        for (int slot : slots) {
+            ItemStack held = get(slot);
+            if (held.getItem() != stack.getItem()) {
+                if (stale == null) stale = new IntArrayList();
+                stale.add(slot);
+            } else if (held.getCount() < held.getMaxStackSize() && ItemStack.isSameItemSameComponents(held, stack)) {
+                found = slot;
+                break;
+            }
+        }
+        if (stale != null) {
+            stale.forEach(this::refile);
+        }
+        return found;
+    }
+
+    /**
+     * Slots holding an item, lowest first.
+     */
+    public IntSortedSet slotsOf(Item item) {
+        IntSortedSet result = new IntRBTreeSet();
+        IntSortedSet slots = slotsByItem.get(item);
+        if (slots != null) {
+            for (int slot : slots) {
+                if (get(slot).getItem() == item) {
+                    result.add(slot);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Slots holding any item the predicate accepts, lowest first.
+     */
+    public IntSortedSet slotsOf(Predicate<Item> matches) {
+        IntSortedSet result = new IntRBTreeSet();
+        for (Item item : List.copyOf(slotsByItem.keySet())) {
+            if (matches.test(item)) {
+                result.addAll(slotsOf(item));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lowest slot holding an item the predicate accepts, or -1.
+     */
+    public int firstSlot(Predicate<Item> matches) {
+        IntSortedSet slots = slotsOf(matches);
+        return slots.isEmpty() ? -1 : slots.firstInt();
+    }
+
+    public int count(Item item) {
+        IntSortedSet slots = slotsByItem.get(item);
+        if (slots == null) {
+            return 0;
+        }
+        int count = 0;
+        for (int slot : slots) {
+            ItemStack held = get(slot);
+            if (held.getItem() == item) {
+                count += held.getCount();
+            }
+        }
+        return count;
+    }
+
+    public int count(Predicate<Item> matches) {
+        int count = 0;
+        for (Item item : slotsByItem.keySet()) {
+            if (matches.test(item)) {
+                count += count(item);
+            }
+        }
+        return count;
+    }
+
+    public int count(TagKey<Item> tag) {
+        return count(item -> item.builtInRegistryHolder().is(tag));
+    }
+
+    /**
+     * Total held of each item.
+     */
+    public Map<Item, Integer> counts() {
+        Reference2IntOpenHashMap<Item> counts = new Reference2IntOpenHashMap<>();
+        for (Item item : slotsByItem.keySet()) {
+            int count = count(item);
+            if (count > 0) {
+                counts.put(item, count);
+            }
+        }
+        return counts;
+    }
+
+    public int usedSlots() {
+        int used = 0;
+        for (int i = 0; i < size(); i++) {
+            if (!get(i).isEmpty()) used++;
+        }
+        return used;
+    }
+
+    /**
+     * Take up to amount of an item, lowest slots first. Returns how many were taken.
+     */
+    public int remove(Item item, int amount) {
+        return remove(slotsOf(item), amount);
+    }
+
+    /**
+     * Take up to amount of any items the predicate accepts, lowest slots first.
+     * Returns how many were taken.
+     */
+    public int remove(Predicate<Item> matches, int amount) {
+        return remove(slotsOf(matches), amount);
+    }
+
+    private int remove(IntSortedSet slots, int amount) {
+        int removed = 0;
+        for (int slot : slots) {
+            if (removed >= amount) break;
+            ItemStack held = get(slot);
+            int take = Math.min(held.getCount(), amount - removed);
+            held.shrink(take);
+            removed += take;
+            if (held.isEmpty()) {
+                set(slot, ItemStack.EMPTY);
+            }
+        }
+        if (removed > 0) {
+            markChanged();
+        }
+        return removed;
+    }
+
+    /**
+     * Lowest empty slot, or -1 if the inventory is full.
+     */
+    public int findFree() {
+        if (freeSlots.isEmpty()) {
+            resync();  // Catch slots emptied in place
+        }
+        return freeSlots.isEmpty() ? -1 : freeSlots.firstInt();
+    }
+}
@@ -1,5 +1,6 @@
 package com.gblfxt.llmoblings.network;
 
+import com.gblfxt.llmoblings.CompanionRegistry;
 import com.gblfxt.llmoblings.LLMoblings;
 import com.gblfxt.llmoblings.entity.CompanionEntity;
 import io.netty.buffer.ByteBuf;
@@ -34,12 +35,8 @@ public record CompanionChatPacket(String companionName, String message) implemen
         context.enqueueWork(() -> {
             if (context.player() instanceof ServerPlayer player) {
                 // Find companion by name owned by this player
-                List<CompanionEntity> companions = player.level().getEntitiesOfClass(
-                        CompanionEntity.class,
-                        player.getBoundingBox().inflate(64),
-                        c -> c.isOwner(player) &&
-                                (packet.companionName().isEmpty() || c.getCompanionName().equalsIgnoreCase(packet.companionName()))
-                );
+                List<CompanionEntity> companions = CompanionRegistry.getOwnedInBox(player.level(), player.getUUID(),
+                        packet.companionName(), player.getBoundingBox().inflate(64));
 
                 if (!companions.isEmpty()) {
                     // Send message to first matching companion (or all if name is empty)
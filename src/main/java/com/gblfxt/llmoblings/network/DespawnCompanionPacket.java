@@ -1,5 +1,6 @@
 package com.gblfxt.llmoblings.network;
 
+import com.gblfxt.llmoblings.CompanionRegistry;
 import com.gblfxt.llmoblings.LLMoblings;
 import com.gblfxt.llmoblings.entity.CompanionEntity;
 import io.netty.buffer.ByteBuf;
@@ -32,11 +33,8 @@ public record DespawnCompanionPacket(String name) implements CustomPacketPayload
         context.enqueueWork(() -> {
             if (context.player() instanceof ServerPlayer player) {
                 // Find and remove companion by name
-                List<CompanionEntity> companions = player.level().getEntitiesOfClass(
-                        CompanionEntity.class,
-                        player.getBoundingBox().inflate(64),
-                        c -> c.isOwner(player) && c.getCompanionName().equals(packet.name())
-                );
+                List<CompanionEntity> companions = CompanionRegistry.getOwnedInBox(player.level(),
+                        player.getUUID(), packet.name(), player.getBoundingBox().inflate(64));
 
                 for (CompanionEntity companion : companions) {
                     companion.discard();
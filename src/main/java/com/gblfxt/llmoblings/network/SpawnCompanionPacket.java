@@ -1,5 +1,6 @@
 package com.gblfxt.llmoblings.network;
 
+import com.gblfxt.llmoblings.CompanionRegistry;
 import com.gblfxt.llmoblings.LLMoblings;
 import com.gblfxt.llmoblings.entity.CompanionEntity;
 import io.netty.buffer.ByteBuf;
@@ -34,11 +35,8 @@ public record SpawnCompanionPacket(String name, String skinUrl) implements Custo
         context.enqueueWork(() -> {
             if (context.player() instanceof ServerPlayer player) {
                 // Check if player already has max companions
-                List<CompanionEntity> existingCompanions = player.level().getEntitiesOfClass(
-                        CompanionEntity.class,
-                        player.getBoundingBox().inflate(64),
-                        c -> c.isOwner(player)
-                );
+                List<CompanionEntity> existingCompanions = CompanionRegistry.getOwnedInBox(player.level(),
+                        player.getUUID(), null, player.getBoundingBox().inflate(64));
 
                 if (existingCompanions.size() >= 3) { // Max companions
                     return;